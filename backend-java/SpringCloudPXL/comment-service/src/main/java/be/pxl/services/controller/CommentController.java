@@ -1,19 +1,25 @@
 package be.pxl.services.controller;
 
+import be.pxl.services.client.PostStatus;
 import be.pxl.services.domain.dtos.CommentResponse;
 import be.pxl.services.domain.dtos.CreateCommentRequest;
+import be.pxl.services.domain.dtos.PageResponse;
 import be.pxl.services.service.ICommentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/comments")
 public class CommentController {
 
+    // set only by the gateway's post detail view; the gateway strips it from client requests
+    public static final String POST_STATUS_HEADER = "X-Post-Status";
+
     private final ICommentService service;
 
     public CommentController(ICommentService service) {
@@ -29,9 +35,17 @@ public class CommentController {
     }
 
     @GetMapping("/posts/{postId}")
-    public List<CommentResponse> list(@PathVariable UUID postId,
-                                      @RequestHeader("user") String user) {
-        return service.getAllCommentsForPost(postId, user);
+    public PageResponse<CommentResponse> list(@PathVariable UUID postId,
+                                              @RequestHeader("user") String user,
+                                              @RequestHeader(value = POST_STATUS_HEADER, required = false) PostStatus postStatus,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int limit) {
+        return service.getCommentsForPost(postId, user, postStatus, cursor, limit);
+    }
+
+    @GetMapping("/counts")
+    public Map<UUID, Long> counts(@RequestParam Set<UUID> postIds) {
+        return service.countComments(postIds);
     }
 
     @DeleteMapping("/{commentId}")
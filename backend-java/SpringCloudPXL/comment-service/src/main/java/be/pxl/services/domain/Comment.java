@@ -8,7 +8,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "comment")
 public class Comment {
-    @Id @GeneratedValue(strategy = GenerationType.UUID)
+    @Id @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -0,0 +1,30 @@
+package be.pxl.services.domain.dtos;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code next} is an opaque cursor for the following
+ * page, or {@code null} when this is the last page.
+ */
+public record PageResponse<T>(
+        List<T> items,
+        String next
+) {
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}: the extra row only
+     * signals that another page exists and is not returned.
+     */
+    public static <T> PageResponse<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new PageResponse<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new PageResponse<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+
+    public <R> PageResponse<R> map(Function<T, R> mapper) {
+        return new PageResponse<>(items.stream().map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,9 @@
+package be.pxl.services.messaging;
+
+public final class MessagingNames {
+    private MessagingNames() {}
+
+    public static final String POST_EXCHANGE = "post.exchange";
+    public static final String POST_STATUS_RK = "post.status.changed";
+    public static final String POST_STATUS_QUEUE = "comment.post-status";
+}
@@ -0,0 +1,7 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.client.PostStatus;
+
+import java.util.UUID;
+
+public record PostStatusChangedEvent(UUID postId, PostStatus status) {}
@@ -0,0 +1,27 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.service.PostStatusProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import static be.pxl.services.messaging.MessagingNames.POST_STATUS_QUEUE;
+
+@Component
+public class PostStatusListener {
+
+    private final Logger log = LoggerFactory.getLogger(PostStatusListener.class);
+
+    private final PostStatusProjection projection;
+
+    public PostStatusListener(PostStatusProjection projection) {
+        this.projection = projection;
+    }
+
+    @RabbitListener(queues = POST_STATUS_QUEUE)
+    public void onStatusChanged(PostStatusChangedEvent evt) {
+        log.debug("Post {} is now {}", evt.postId(), evt.status());
+        projection.put(evt.postId(), evt.status());
+    }
+}
@@ -0,0 +1,33 @@
+package be.pxl.services.messaging;
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public TopicExchange postExchange() {
+        return ExchangeBuilder.topicExchange(POST_EXCHANGE).durable(true).build();
+    }
+
+    @Bean
+    public Queue postStatusQueue() {
+        return QueueBuilder.durable(POST_STATUS_QUEUE).build();
+    }
+
+    @Bean
+    public Binding postStatusBinding(TopicExchange postExchange, Queue postStatusQueue) {
+        return BindingBuilder.bind(postStatusQueue).to(postExchange).with(POST_STATUS_RK);
+    }
+
+    @Bean
+    public MessageConverter jackson2MessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
@@ -1,12 +1,43 @@
 package be.pxl.services.repository;
 
 import be.pxl.services.domain.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
-    List<Comment> findByPostIdOrderByCreatedAtAsc(UUID postId);
     long countByPostId(UUID postId);
+
+    /**
+     * Number of comments of every post that has any, in one pass over idx_comment_post_created.
+     */
+    @Query("SELECT c.postId AS postId, COUNT(c) AS count FROM Comment c GROUP BY c.postId")
+    List<PostCommentCount> countPerPost();
+
+    interface PostCommentCount {
+        UUID getPostId();
+
+        long getCount();
+    }
+
+    /**
+     * Comments of a post oldest first, starting after the cursor if one is given. Backed by
+     * idx_comment_post_created; InnoDB appends the primary key to it, so the id tie-breaker needs no extra index.
+     */
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.postId = :postId " +
+            "AND (:cursorDate IS NULL OR c.createdAt > :cursorDate " +
+            "OR (c.createdAt = :cursorDate AND c.id > :cursorId)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findPageByPostId(
+            @Param("postId") UUID postId,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
+    );
 }
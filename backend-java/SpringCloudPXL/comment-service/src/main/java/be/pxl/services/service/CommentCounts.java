@@ -0,0 +1,122 @@
+package be.pxl.services.service;
+
+import be.pxl.services.repository.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Comment count per post, kept in memory so a feed page needs no count query at all.
+ * <p>
+ * Built with a single {@code GROUP BY} at startup, adjusted on every add and delete this instance commits,
+ * and rebuilt periodically to pick up comments changed by other replicas. Adjustments committed while the
+ * {@code GROUP BY} runs are recorded and replayed onto its result before it replaces the live counts, since the
+ * query may not have seen them. A comment committed just before the query starts can thus be counted twice,
+ * until the next rebuild.
+ */
+@Component
+public class CommentCounts {
+
+    private final CommentRepository commentRepository;
+
+    private volatile ConcurrentHashMap<UUID, Long> counts = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // guards swapping counts against adjustments, so none lands in a map that is being replaced
+    private final Object swapLock = new Object();
+    private Map<UUID, Long> deltasDuringRebuild;
+
+    private final Logger log = LoggerFactory.getLogger(CommentCounts.class);
+
+    public CommentCounts(CommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${comments.counts.reconcile-interval-ms:300000}",
+            fixedDelayString = "${comments.counts.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (swapLock) {
+            deltasDuringRebuild = new HashMap<>();
+        }
+        try {
+            ConcurrentHashMap<UUID, Long> rebuilt = new ConcurrentHashMap<>();
+            commentRepository.countPerPost().forEach(row -> rebuilt.put(row.getPostId(), row.getCount()));
+            synchronized (swapLock) {
+                deltasDuringRebuild.forEach((postId, delta) -> adjust(rebuilt, postId, delta));
+                counts = rebuilt;
+            }
+            ready = true;
+            log.info("Comment counts rebuilt for {} posts", rebuilt.size());
+        } catch (RuntimeException ex) {
+            log.warn("Comment count rebuild failed; counts fall back to the database", ex);
+        } finally {
+            synchronized (swapLock) {
+                deltasDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Counts for the given posts, 0 for posts without comments, or empty when the counters are not built yet
+     * and the caller should query the database.
+     */
+    public Optional<Map<UUID, Long>> get(Collection<UUID> postIds) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Map<UUID, Long> snapshot = counts;
+        Map<UUID, Long> result = new LinkedHashMap<>();
+        postIds.forEach(id -> result.put(id, snapshot.getOrDefault(id, 0L)));
+        return Optional.of(result);
+    }
+
+    public void commentAdded(UUID postId) {
+        adjustAfterCommit(postId, 1);
+    }
+
+    public void commentDeleted(UUID postId) {
+        adjustAfterCommit(postId, -1);
+    }
+
+    private void adjustAfterCommit(UUID postId, long delta) {
+        Runnable adjust = () -> {
+            synchronized (swapLock) {
+                adjust(counts, postId, delta);
+                if (deltasDuringRebuild != null) {
+                    deltasDuringRebuild.merge(postId, delta, Long::sum);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust.run();
+                }
+            });
+        } else {
+            adjust.run();
+        }
+    }
+
+    private static void adjust(Map<UUID, Long> target, UUID postId, long delta) {
+        target.compute(postId, (id, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+}
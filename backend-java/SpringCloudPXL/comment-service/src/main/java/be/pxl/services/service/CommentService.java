@@ -1,32 +1,52 @@
 package be.pxl.services.service;
 
+import be.pxl.services.client.PostResponse;
 import be.pxl.services.client.PostServiceClient;
+import be.pxl.services.client.PostStatus;
 import be.pxl.services.domain.Comment;
+import be.pxl.services.domain.dtos.CommentCursor;
 import be.pxl.services.domain.dtos.CommentMapper;
 import be.pxl.services.domain.dtos.CommentResponse;
 import be.pxl.services.domain.dtos.CreateCommentRequest;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
 import be.pxl.services.repository.CommentRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class CommentService implements ICommentService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_COUNT_POSTS = 100;
+
     Logger Logger = LoggerFactory.getLogger(CommentService.class);
 
     private final CommentRepository commentRepository;
     private final PostServiceClient postServiceClient;
+    private final PostStatusProjection postStatuses;
+    private final FirstCommentPageCache firstPages;
+    private final CommentCounts commentCounts;
 
-    public CommentService(CommentRepository commentRepository, PostServiceClient postServiceClient) {
+    public CommentService(CommentRepository commentRepository, PostServiceClient postServiceClient,
+                          PostStatusProjection postStatuses, FirstCommentPageCache firstPages,
+                          CommentCounts commentCounts) {
         this.commentRepository = commentRepository;
         this.postServiceClient = postServiceClient;
+        this.postStatuses = postStatuses;
+        this.firstPages = firstPages;
+        this.commentCounts = commentCounts;
     }
 
     @Override
@@ -38,14 +58,54 @@ public class CommentService implements ICommentService {
         c.setCreatedAt(LocalDateTime.now());
 
         Comment saved = commentRepository.save(c);
+        firstPages.evict(postId);
+        commentCounts.commentAdded(postId);
         return CommentMapper.toResponse(saved);
     }
 
     @Override
-    public List<CommentResponse> getAllCommentsForPost(UUID postId, String user) {
+    public PageResponse<CommentResponse> getCommentsForPost(UUID postId, String user, PostStatus knownStatus,
+                                                            String cursor, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        CommentCursor after = CommentCursor.decode(cursor);
         Logger.info("Getting comments for user " + user);
-        getVisiblePostOrThrow(postId);
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream().map(CommentMapper::toResponse).toList();
+        // a caller's copy of the status only spares this request the lookup; the projection is fed by post-service alone
+        if (knownStatus == null) {
+            getVisiblePostOrThrow(postId);
+        }
+        List<CommentResponse> rows;
+        if (after == null) {
+            // cached at the largest page size (+1 to know whether there is more), sliced to the requested one
+            List<CommentResponse> first = firstPages.get(postId, () -> loadPage(postId, null, MAX_PAGE_SIZE));
+            rows = first.subList(0, Math.min(first.size(), pageSize + 1));
+        } else {
+            rows = loadPage(postId, after, pageSize);
+        }
+        return PageResponse.of(rows, pageSize, row -> CommentCursor.of(row).encode());
+    }
+
+    private List<CommentResponse> loadPage(UUID postId, CommentCursor after, int pageSize) {
+        return commentRepository.findPageByPostId(
+                postId,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                Limit.of(pageSize + 1)
+        ).stream().map(CommentMapper::toResponse).toList();
+    }
+
+    @Override
+    public Map<UUID, Long> countComments(Set<UUID> postIds) {
+        if (postIds.isEmpty() || postIds.size() > MAX_COUNT_POSTS) {
+            throw new BadRequestException("postIds must hold between 1 and " + MAX_COUNT_POSTS + " ids");
+        }
+        return commentCounts.get(postIds).orElseGet(() -> {
+            Map<UUID, Long> counts = new LinkedHashMap<>();
+            postIds.forEach(id -> counts.put(id, commentRepository.countByPostId(id)));
+            return counts;
+        });
     }
 
     @Override
@@ -61,6 +121,8 @@ public class CommentService implements ICommentService {
         }
         Logger.info("Deleting comment " + commentId);
         commentRepository.delete(c);
+        firstPages.evict(c.getPostId());
+        commentCounts.commentDeleted(c.getPostId());
     }
 
     @Override
@@ -75,13 +137,21 @@ public class CommentService implements ICommentService {
         comment.setContent(req.content().trim());
         comment.setUpdatedAt(java.time.LocalDateTime.now());
         Logger.info("Successfully edited comemnt: " + comment);
-        return CommentMapper.toResponse(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        firstPages.evict(saved.getPostId());
+        return CommentMapper.toResponse(saved);
     }
 
     private void getVisiblePostOrThrow(UUID postId) {
+        if (postStatuses.get(postId).isPresent()) {
+            return;
+        }
         try {
             Logger.info("Trying to fetch visible post: " + postId);
-            postServiceClient.getPostById(postId, "internal");
+            PostResponse post = postServiceClient.getPostById(postId, "internal");
+            if (post != null && post.status() != null) {
+                postStatuses.put(postId, post.status());
+            }
         } catch (Exception ex) {
             Logger.error("Error while fetching visible post: " + postId, ex);
             throw new ResourceNotFoundException("Post not found or not visible: " + postId);
@@ -0,0 +1,55 @@
+package be.pxl.services.service;
+
+import be.pxl.services.domain.dtos.CommentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The oldest comments of recently opened posts, enough to answer a first page of any size.
+ * <p>
+ * A post's entry is dropped when this instance adds, edits or deletes one of its comments. Other replicas only
+ * see the change once the entry expires, which is why the TTL is kept short.
+ */
+@Component
+public class FirstCommentPageCache {
+
+    private final Cache<UUID, List<CommentResponse>> firstRows;
+
+    public FirstCommentPageCache(@Value("${comments.cache.first-page.max-size:1000}") long maxSize,
+                                 @Value("${comments.cache.first-page.ttl:PT30S}") Duration ttl) {
+        this.firstRows = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public List<CommentResponse> get(UUID postId, Supplier<List<CommentResponse>> loader) {
+        return firstRows.get(postId, id -> loader.get());
+    }
+
+    /**
+     * Drops the post's entry, or when called inside a transaction, once it commits, so a read racing the
+     * transaction cannot put the old comments back.
+     */
+    public void evict(UUID postId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    firstRows.invalidate(postId);
+                }
+            });
+        } else {
+            firstRows.invalidate(postId);
+        }
+    }
+}
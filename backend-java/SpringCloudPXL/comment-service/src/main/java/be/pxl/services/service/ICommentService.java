@@ -1,18 +1,39 @@
 package be.pxl.services.service;
 
+import be.pxl.services.client.PostStatus;
 import be.pxl.services.domain.dtos.CommentResponse;
 import be.pxl.services.domain.dtos.CreateCommentRequest;
+import be.pxl.services.domain.dtos.PageResponse;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public interface ICommentService {
     CommentResponse addComment(UUID postId, String user, @Valid CreateCommentRequest req);
 
-    List<CommentResponse> getAllCommentsForPost(UUID postId, String user);
+    /**
+     * One page of a post's comments, oldest first. {@code cursor} is the {@code next} value of the previous page,
+     * or {@code null} for the first page.
+     */
+    default PageResponse<CommentResponse> getCommentsForPost(UUID postId, String user, String cursor, int limit) {
+        return getCommentsForPost(postId, user, null, cursor, limit);
+    }
+
+    /**
+     * As above; {@code knownStatus} is the post's status as already fetched by the caller (the gateway's post
+     * detail view), which spares this request the visibility lookup; it is never recorded in the projection.
+     */
+    PageResponse<CommentResponse> getCommentsForPost(UUID postId, String user, PostStatus knownStatus, String cursor,
+                                                     int limit);
+
+    /**
+     * Number of comments per requested post, 0 for posts without any.
+     */
+    Map<UUID, Long> countComments(Set<UUID> postIds);
 
     void deleteComment(UUID commentId, String user);
 
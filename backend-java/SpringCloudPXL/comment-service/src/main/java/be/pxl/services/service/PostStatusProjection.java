@@ -0,0 +1,124 @@
+package be.pxl.services.service;
+
+import be.pxl.services.client.PostStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Local copy of the status of every post comment-service has heard of, fed by post-service status events
+ * and by Feign lookups on a miss.
+ * <p>
+ * Stored as an open-addressing hash table over primitive arrays: the two halves of the UUID and one byte
+ * for the status, about 17 bytes per post instead of a {@code HashMap} entry with a boxed key.
+ */
+@Component
+public class PostStatusProjection {
+
+    private static final PostStatus[] STATUSES = PostStatus.values();
+    private static final int MAX_LOAD_PERCENT = 60;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] msbs;
+    private long[] lsbs;
+    // 0 marks a free slot, anything else is the status ordinal + 1
+    private byte[] statuses;
+    private int size;
+
+    public PostStatusProjection(@Value("${comments.post-projection.initial-capacity:1024}") int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public Optional<PostStatus> get(UUID postId) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOf(postId.getMostSignificantBits(), postId.getLeastSignificantBits());
+            return slot < 0 ? Optional.empty() : Optional.of(STATUSES[statuses[slot] - 1]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Records the latest known status of a post; later calls overwrite earlier ones.
+     */
+    public void put(UUID postId, PostStatus status) {
+        long stamp = lock.writeLock();
+        try {
+            long msb = postId.getMostSignificantBits();
+            long lsb = postId.getLeastSignificantBits();
+            int slot = slotOf(msb, lsb);
+            if (slot >= 0) {
+                statuses[slot] = (byte) (status.ordinal() + 1);
+                return;
+            }
+            insert(-slot - 1, msb, lsb, (byte) (status.ordinal() + 1));
+            if (++size * 100L > (long) statuses.length * MAX_LOAD_PERCENT) {
+                resize();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the slot holding the key, or {@code -(free slot) - 1} where it would be inserted.
+     */
+    private int slotOf(long msb, long lsb) {
+        int mask = statuses.length - 1;
+        for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+            if (statuses[i] == 0) {
+                return -i - 1;
+            }
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                return i;
+            }
+        }
+    }
+
+    private void insert(int slot, long msb, long lsb, byte status) {
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        statuses[slot] = status;
+    }
+
+    private void resize() {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        byte[] oldStatuses = statuses;
+        allocate(oldStatuses.length << 1);
+        for (int i = 0; i < oldStatuses.length; i++) {
+            if (oldStatuses[i] != 0) {
+                insert(-slotOf(oldMsbs[i], oldLsbs[i]) - 1, oldMsbs[i], oldLsbs[i], oldStatuses[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        statuses = new byte[capacity];
+    }
+
+    // UUIDv7 ids share their leading bits, so mix both halves before masking
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
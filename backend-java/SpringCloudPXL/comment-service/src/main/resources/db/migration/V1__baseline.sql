@@ -0,0 +1,12 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and never run it.
+CREATE TABLE IF NOT EXISTS comment
+(
+    id         BINARY(16)    NOT NULL,
+    post_id    BINARY(16)    NOT NULL,
+    content    VARCHAR(1200) NOT NULL,
+    author     VARCHAR(255)  NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,2 @@
+-- CommentRepository.findByPostIdOrderByCreatedAtAsc and countByPostId.
+CREATE INDEX idx_comment_post_created ON comment (post_id, created_at);
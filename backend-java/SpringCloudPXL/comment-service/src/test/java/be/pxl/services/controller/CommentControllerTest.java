@@ -1,7 +1,10 @@
 package be.pxl.services.controller;
 
+import be.pxl.services.client.PostStatus;
 import be.pxl.services.domain.dtos.CommentResponse;
 import be.pxl.services.domain.dtos.CreateCommentRequest;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.GlobalExceptionHandler;
 import be.pxl.services.service.ICommentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,6 +19,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -91,15 +96,68 @@ class CommentControllerTest {
                 null
         );
 
-        when(commentService.getAllCommentsForPost(postId, "bob"))
-                .thenReturn(List.of(c1, c2));
+        when(commentService.getCommentsForPost(postId, "bob", null, null, 50))
+                .thenReturn(new PageResponse<>(List.of(c1, c2), "next-cursor"));
 
         mockMvc.perform(get("/api/comments/posts/{postId}", postId)
                         .header("user", "bob"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].content").value("first"))
-                .andExpect(jsonPath("$[1].content").value("second"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].content").value("first"))
+                .andExpect(jsonPath("$.items[1].content").value("second"))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    void listComments_passesCursorAndLimit() throws Exception {
+        UUID postId = UUID.randomUUID();
+        when(commentService.getCommentsForPost(postId, "bob", null, "abc", 10))
+                .thenReturn(new PageResponse<>(List.of(), null));
+
+        mockMvc.perform(get("/api/comments/posts/{postId}", postId)
+                        .header("user", "bob")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void listComments_passesPostStatusHeader() throws Exception {
+        UUID postId = UUID.randomUUID();
+        when(commentService.getCommentsForPost(postId, "bob", PostStatus.PUBLISHED, null, 50))
+                .thenReturn(new PageResponse<>(List.of(), null));
+
+        mockMvc.perform(get("/api/comments/posts/{postId}", postId)
+                        .header("user", "bob")
+                        .header(CommentController.POST_STATUS_HEADER, "PUBLISHED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void listComments_invalidCursor_returns400() throws Exception {
+        UUID postId = UUID.randomUUID();
+        when(commentService.getCommentsForPost(postId, "bob", null, "bad", 50))
+                .thenThrow(new BadRequestException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/comments/posts/{postId}", postId)
+                        .header("user", "bob")
+                        .param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void counts_returnsCountPerPost() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(commentService.countComments(Set.of(first, second))).thenReturn(Map.of(first, 3L, second, 0L));
+
+        mockMvc.perform(get("/api/comments/counts")
+                        .param("postIds", first + "," + second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + first + "']").value(3))
+                .andExpect(jsonPath("$['" + second + "']").value(0));
     }
 
     @Test
@@ -0,0 +1,129 @@
+package be.pxl.services.it;
+
+import be.pxl.services.repository.CommentRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against MySQL, calls the hot repository queries and checks with EXPLAIN that the SQL
+ * Hibernate generated for them uses their index.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class QueryPlanIT {
+
+    private static final UUID KNOWN_POST_ID = UUID.randomUUID();
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.3.0")
+            .withDatabaseName("commentdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    // only the JPA slice: the application class would also bring in Feign clients, discovery and scheduling
+    @SpringBootConfiguration
+    @EntityScan("be.pxl.services.domain")
+    @EnableJpaRepositories("be.pxl.services.repository")
+    @Import(StatementCapture.class)
+    static class JpaSlice {
+    }
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private StatementCapture statements;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()).load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO comment (id, post_id, content, author, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < 2000; i++) {
+                // 20 comments on the known post, the rest spread over other posts
+                insert.setBytes(1, bytes(UUID.randomUUID()));
+                insert.setBytes(2, bytes(i < 20 ? KNOWN_POST_ID : UUID.randomUUID()));
+                insert.setString(3, "comment " + i);
+                insert.setString(4, "user" + (i % 100));
+                insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now().minusMinutes(i)));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.createStatement().execute("ANALYZE TABLE comment");
+        }
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void findPageByPostId_firstPage_usesPostCreatedIndex() throws SQLException {
+        commentRepository.findPageByPostId(KNOWN_POST_ID, null, null, Limit.of(101));
+
+        assertThat(statements.explainKey(statements.last("from comment"))).isEqualTo("idx_comment_post_created");
+    }
+
+    @Test
+    void findPageByPostId_afterCursor_usesPostCreatedIndex() throws SQLException {
+        commentRepository.findPageByPostId(KNOWN_POST_ID, LocalDateTime.now().minusMinutes(10), UUID.randomUUID(),
+                Limit.of(101));
+
+        assertThat(statements.explainKey(statements.last("from comment"))).isEqualTo("idx_comment_post_created");
+    }
+
+    @Test
+    void countByPostId_usesPostCreatedIndex() throws SQLException {
+        commentRepository.countByPostId(KNOWN_POST_ID);
+
+        assertThat(statements.explainKey(statements.last("from comment"))).isEqualTo("idx_comment_post_created");
+    }
+
+    @Test
+    void countPerPost_scansPostCreatedIndex() throws SQLException {
+        commentRepository.countPerPost();
+
+        assertThat(statements.explainKey(statements.last("from comment"))).isEqualTo("idx_comment_post_created");
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
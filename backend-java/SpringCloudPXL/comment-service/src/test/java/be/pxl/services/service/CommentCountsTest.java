@@ -0,0 +1,108 @@
+package be.pxl.services.service;
+
+import be.pxl.services.repository.CommentRepository;
+import be.pxl.services.repository.CommentRepository.PostCommentCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CommentCountsTest {
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final UUID popular = UUID.randomUUID();
+    private final UUID quiet = UUID.randomUUID();
+
+    private CommentCounts counts;
+
+    @BeforeEach
+    void setUp() {
+        counts = new CommentCounts(commentRepository);
+    }
+
+    private static PostCommentCount row(UUID postId, long count) {
+        return new PostCommentCount() {
+            @Override
+            public UUID getPostId() {
+                return postId;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void get_beforeFirstBuild_isEmpty() {
+        assertEquals(Optional.empty(), counts.get(Set.of(popular)));
+    }
+
+    @Test
+    void reconcile_loadsAllCountsInOneQuery() {
+        when(commentRepository.countPerPost()).thenReturn(List.of(row(popular, 42)));
+
+        counts.reconcile();
+
+        assertEquals(Map.of(popular, 42L, quiet, 0L), counts.get(Set.of(popular, quiet)).orElseThrow());
+        verify(commentRepository, times(1)).countPerPost();
+        verifyNoMoreInteractions(commentRepository);
+    }
+
+    @Test
+    void commentAddedAndDeleted_adjustCountsIncrementally() {
+        when(commentRepository.countPerPost()).thenReturn(List.of(row(popular, 2)));
+        counts.reconcile();
+
+        counts.commentAdded(popular);
+        counts.commentAdded(quiet);
+        counts.commentDeleted(popular);
+        counts.commentDeleted(quiet);
+        counts.commentDeleted(quiet);
+
+        assertEquals(Map.of(popular, 2L, quiet, 0L), counts.get(Set.of(popular, quiet)).orElseThrow());
+    }
+
+    @Test
+    void reconcile_replacesDriftedCounts() {
+        when(commentRepository.countPerPost()).thenReturn(List.of(row(popular, 2)), List.of(row(popular, 7)));
+        counts.reconcile();
+        counts.commentAdded(popular);
+
+        counts.reconcile();
+
+        assertEquals(7L, counts.get(Set.of(popular)).orElseThrow().get(popular));
+    }
+
+    @Test
+    void reconcile_keepsAdjustmentsCommittedWhileItsQueryRuns() {
+        when(commentRepository.countPerPost()).thenReturn(List.of(row(popular, 2))).thenAnswer(invocation -> {
+            // committed after the GROUP BY took its snapshot, so the query does not see it
+            counts.commentAdded(quiet);
+            return List.of(row(popular, 2));
+        });
+        counts.reconcile();
+
+        counts.reconcile();
+
+        assertEquals(Map.of(popular, 2L, quiet, 1L), counts.get(Set.of(popular, quiet)).orElseThrow());
+    }
+
+    @Test
+    void reconcile_failureKeepsPreviousCounts() {
+        when(commentRepository.countPerPost()).thenReturn(List.of(row(popular, 2))).thenThrow(new RuntimeException("db down"));
+        counts.reconcile();
+
+        counts.reconcile();
+
+        assertEquals(2L, counts.get(Set.of(popular)).orElseThrow().get(popular));
+    }
+}
@@ -1,9 +1,14 @@
 package be.pxl.services.service;
 
+import be.pxl.services.client.PostResponse;
 import be.pxl.services.client.PostServiceClient;
+import be.pxl.services.client.PostStatus;
 import be.pxl.services.domain.Comment;
 import be.pxl.services.domain.dtos.CommentResponse;
+import be.pxl.services.domain.dtos.CommentCursor;
 import be.pxl.services.domain.dtos.CreateCommentRequest;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
 import be.pxl.services.repository.CommentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +16,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +41,15 @@ class CommentServiceTest {
     @Mock
     private PostServiceClient postServiceClient;
 
+    @Spy
+    private PostStatusProjection postStatuses = new PostStatusProjection(16);
+
+    @Mock
+    private CommentCounts commentCounts;
+
+    @Spy
+    private FirstCommentPageCache firstPages = new FirstCommentPageCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private CommentService commentService;
 
@@ -70,10 +90,11 @@ class CommentServiceTest {
         assertEquals(commentId, response.id());
         assertEquals(postId, response.postId());
         assertEquals("hello world", response.content());
+        verify(commentCounts).commentAdded(postId);
     }
 
     @Test
-    void getAllCommentsForPost_callsPostVisibilityCheckAndReturnsMappedComments() {
+    void getCommentsForPost_callsPostVisibilityCheckAndReturnsMappedComments() {
         String user = "bob";
 
         // post is visible -> getPostById succeeds
@@ -93,34 +114,162 @@ class CommentServiceTest {
         c2.setContent("second");
         c2.setCreatedAt(LocalDateTime.now());
 
-        when(commentRepository.findByPostIdOrderByCreatedAtAsc(postId))
+        when(commentRepository.findPageByPostId(postId, null, null, Limit.of(CommentService.MAX_PAGE_SIZE + 1)))
                 .thenReturn(List.of(c1, c2));
 
-        List<CommentResponse> responses = commentService.getAllCommentsForPost(postId, user);
+        PageResponse<CommentResponse> page = commentService.getCommentsForPost(postId, user, null, 20);
 
         verify(postServiceClient).getPostById(postId, "internal");
-        verify(commentRepository).findByPostIdOrderByCreatedAtAsc(postId);
 
-        assertEquals(2, responses.size());
-        assertEquals("first", responses.get(0).content());
-        assertEquals("second", responses.get(1).content());
+        assertEquals(2, page.items().size());
+        assertEquals("first", page.items().get(0).content());
+        assertEquals("second", page.items().get(1).content());
+        assertNull(page.next());
+    }
+
+    @Test
+    void getCommentsForPost_firstPageServedFromCacheAndSlicedToLimit() {
+        postStatuses.put(postId, PostStatus.PUBLISHED);
+        List<Comment> rows = comments(5);
+        when(commentRepository.findPageByPostId(postId, null, null, Limit.of(CommentService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(rows);
+
+        PageResponse<CommentResponse> first = commentService.getCommentsForPost(postId, "bob", null, 2);
+        PageResponse<CommentResponse> again = commentService.getCommentsForPost(postId, "bob", null, 10);
+
+        verify(commentRepository, times(1)).findPageByPostId(any(), any(), any(), any());
+        assertEquals(2, first.items().size());
+        assertEquals(new CommentCursor(rows.get(1).getCreatedAt(), rows.get(1).getId()), CommentCursor.decode(first.next()));
+        assertEquals(5, again.items().size());
+        assertNull(again.next());
+    }
+
+    @Test
+    void getCommentsForPost_laterPagesQueryAfterCursor() {
+        postStatuses.put(postId, PostStatus.PUBLISHED);
+        CommentCursor cursor = new CommentCursor(LocalDateTime.now().minusHours(1), UUID.randomUUID());
+        when(commentRepository.findPageByPostId(postId, cursor.createdAt(), cursor.id(), Limit.of(3)))
+                .thenReturn(comments(3));
+
+        PageResponse<CommentResponse> page = commentService.getCommentsForPost(postId, "bob", cursor.encode(), 2);
+
+        assertEquals(2, page.items().size());
+        assertNotNull(page.next());
+    }
+
+    @Test
+    void getCommentsForPost_invalidCursorOrLimit_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> commentService.getCommentsForPost(postId, "bob", "not-a-cursor", 10));
+        assertThrows(BadRequestException.class, () -> commentService.getCommentsForPost(postId, "bob", null, 0));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void addComment_evictsCachedFirstPage() {
+        postStatuses.put(postId, PostStatus.PUBLISHED);
+        when(commentRepository.findPageByPostId(any(), any(), any(), any())).thenReturn(List.of());
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
+        commentService.getCommentsForPost(postId, "bob", null, 10);
+
+        commentService.addComment(postId, "alice", new CreateCommentRequest("hi"));
+        commentService.getCommentsForPost(postId, "bob", null, 10);
+
+        verify(commentRepository, times(2)).findPageByPostId(any(), any(), any(), any());
+    }
+
+    private List<Comment> comments(int count) {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(count);
+        return IntStream.range(0, count).mapToObj(i -> {
+            Comment c = new Comment();
+            c.setId(UUID.randomUUID());
+            c.setPostId(postId);
+            c.setAuthor("alice");
+            c.setContent("comment " + i);
+            c.setCreatedAt(start.plusMinutes(i));
+            return c;
+        }).toList();
     }
 
     @Test
-    void getAllCommentsForPost_postNotVisible_throwsResourceNotFound() {
+    void getCommentsForPost_postNotVisible_throwsResourceNotFound() {
         when(postServiceClient.getPostById(eq(postId), eq("internal")))
                 .thenThrow(new RuntimeException("Post not visible"));
 
         assertThrows(ResourceNotFoundException.class,
-                () -> commentService.getAllCommentsForPost(postId, "any"));
+                () -> commentService.getCommentsForPost(postId, "any", null, 20));
 
-        verify(commentRepository, never()).findByPostIdOrderByCreatedAtAsc(any());
+        verify(commentRepository, never()).findPageByPostId(any(), any(), any(), any());
+    }
+
+    @Test
+    void getCommentsForPost_postInProjection_skipsPostService() {
+        postStatuses.put(postId, PostStatus.PUBLISHED);
+        when(commentRepository.findPageByPostId(any(), any(), any(), any())).thenReturn(List.of());
+
+        commentService.getCommentsForPost(postId, "bob", null, 20);
+
+        verifyNoInteractions(postServiceClient);
+    }
+
+    @Test
+    void getCommentsForPost_projectionMiss_recordsStatusFromPostService() {
+        when(postServiceClient.getPostById(postId, "internal")).thenReturn(
+                new PostResponse(postId, "title", "content", "alice", PostStatus.PUBLISHED, LocalDateTime.now(), null));
+        when(commentRepository.findPageByPostId(any(), any(), any(), any())).thenReturn(List.of());
+
+        commentService.getCommentsForPost(postId, "bob", null, 20);
+        commentService.getCommentsForPost(postId, "bob", null, 20);
+
+        verify(postServiceClient, times(1)).getPostById(postId, "internal");
+        assertEquals(Optional.of(PostStatus.PUBLISHED), postStatuses.get(postId));
+    }
+
+    @Test
+    void getCommentsForPost_statusFromCaller_skipsPostServiceWithoutRecordingIt() {
+        when(commentRepository.findPageByPostId(any(), any(), any(), any())).thenReturn(List.of());
+
+        commentService.getCommentsForPost(postId, "bob", PostStatus.PUBLISHED, null, 20);
+
+        verifyNoInteractions(postServiceClient);
+        assertEquals(Optional.empty(), postStatuses.get(postId));
+        assertEquals(0, postStatuses.size());
+    }
+
+    @Test
+    void countComments_answersFromCounters() {
+        UUID other = UUID.randomUUID();
+        when(commentCounts.get(Set.of(postId, other))).thenReturn(Optional.of(Map.of(postId, 3L, other, 0L)));
+
+        Map<UUID, Long> counts = commentService.countComments(Set.of(postId, other));
+
+        assertEquals(Map.of(postId, 3L, other, 0L), counts);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void countComments_countersNotBuilt_fallsBackToCountQueries() {
+        when(commentCounts.get(Set.of(postId))).thenReturn(Optional.empty());
+        when(commentRepository.countByPostId(postId)).thenReturn(4L);
+
+        assertEquals(Map.of(postId, 4L), commentService.countComments(Set.of(postId)));
+    }
+
+    @Test
+    void countComments_tooManyOrNoIds_throwsBadRequest() {
+        Set<UUID> tooMany = IntStream.range(0, CommentService.MAX_COUNT_POSTS + 1)
+                .mapToObj(i -> UUID.randomUUID())
+                .collect(Collectors.toSet());
+
+        assertThrows(BadRequestException.class, () -> commentService.countComments(Set.of()));
+        assertThrows(BadRequestException.class, () -> commentService.countComments(tooMany));
+        verifyNoInteractions(commentCounts);
     }
 
     @Test
     void deleteComment_authorCanDelete() {
         Comment c = new Comment();
         c.setId(commentId);
+        c.setPostId(postId);
         c.setAuthor("alice");
 
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(c));
@@ -128,12 +277,14 @@ class CommentServiceTest {
         commentService.deleteComment(commentId, "alice");
 
         verify(commentRepository).delete(c);
+        verify(commentCounts).commentDeleted(postId);
     }
 
     @Test
     void deleteComment_internalCanDelete() {
         Comment c = new Comment();
         c.setId(commentId);
+        c.setPostId(postId);
         c.setAuthor("alice");
 
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(c));
@@ -147,6 +298,7 @@ class CommentServiceTest {
     void deleteComment_notAuthorAndNotInternal_throwsIllegalState() {
         Comment c = new Comment();
         c.setId(commentId);
+        c.setPostId(postId);
         c.setAuthor("alice");
 
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(c));
@@ -174,6 +326,7 @@ class CommentServiceTest {
     void editComment_authorCanEdit() {
         Comment existing = new Comment();
         existing.setId(commentId);
+        existing.setPostId(postId);
         existing.setAuthor("alice");
         existing.setContent("old");
 
@@ -193,6 +346,7 @@ class CommentServiceTest {
     void editComment_internalCanEdit() {
         Comment existing = new Comment();
         existing.setId(commentId);
+        existing.setPostId(postId);
         existing.setAuthor("alice");
         existing.setContent("old");
 
@@ -208,10 +362,27 @@ class CommentServiceTest {
         verify(commentRepository).save(existing);
     }
 
+    @Test
+    void editComment_evictsCachedFirstPageOfItsPost() {
+        postStatuses.put(postId, PostStatus.PUBLISHED);
+        Comment existing = new Comment();
+        existing.setId(commentId);
+        existing.setPostId(postId);
+        existing.setAuthor("alice");
+        existing.setContent("old");
+        when(commentRepository.findById(commentId)).thenReturn(Optional.of(existing));
+        when(commentRepository.save(existing)).thenReturn(existing);
+
+        commentService.editComment(commentId, "alice", new CreateCommentRequest("new"));
+
+        verify(firstPages).evict(postId);
+    }
+
     @Test
     void editComment_notAuthorAndNotInternal_throwsIllegalState() {
         Comment existing = new Comment();
         existing.setId(commentId);
+        existing.setPostId(postId);
         existing.setAuthor("alice");
         existing.setContent("old");
 
@@ -0,0 +1,63 @@
+package be.pxl.services.service;
+
+import be.pxl.services.client.PostStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostStatusProjectionTest {
+
+    @Test
+    void get_unknownPost_isEmpty() {
+        PostStatusProjection projection = new PostStatusProjection(16);
+
+        assertEquals(Optional.empty(), projection.get(UUID.randomUUID()));
+    }
+
+    @Test
+    void put_overwritesPreviousStatus() {
+        PostStatusProjection projection = new PostStatusProjection(16);
+        UUID postId = UUID.randomUUID();
+
+        projection.put(postId, PostStatus.PENDING_REVIEW);
+        projection.put(postId, PostStatus.PUBLISHED);
+
+        assertEquals(Optional.of(PostStatus.PUBLISHED), projection.get(postId));
+        assertEquals(1, projection.size());
+    }
+
+    @Test
+    void put_manyPosts_growsAndKeepsEveryEntry() {
+        PostStatusProjection projection = new PostStatusProjection(16);
+        List<UUID> ids = new ArrayList<>();
+        PostStatus[] statuses = PostStatus.values();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            projection.put(id, statuses[i % statuses.length]);
+        }
+
+        assertEquals(ids.size(), projection.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(Optional.of(statuses[i % statuses.length]), projection.get(ids.get(i)));
+        }
+    }
+
+    @Test
+    void put_idsSharingHighBits_areKeptApart() {
+        PostStatusProjection projection = new PostStatusProjection(16);
+        UUID a = new UUID(0x0190_0000_0000_7000L, 1L);
+        UUID b = new UUID(0x0190_0000_0000_7000L, 2L);
+
+        projection.put(a, PostStatus.DRAFT);
+        projection.put(b, PostStatus.PUBLISHED);
+
+        assertEquals(Optional.of(PostStatus.DRAFT), projection.get(a));
+        assertEquals(Optional.of(PostStatus.PUBLISHED), projection.get(b));
+    }
+}
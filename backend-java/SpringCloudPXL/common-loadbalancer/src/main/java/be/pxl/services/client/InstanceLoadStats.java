@@ -0,0 +1,155 @@
+package be.pxl.services.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Outstanding requests and peak-EWMA response time per service instance, recorded by Spring Cloud LoadBalancer's
+ * lifecycle callbacks around every load-balanced call (gateway routes, WebClient and Feign alike) and read by
+ * {@link PeakEwmaLoadBalancer}.
+ * <p>
+ * The average jumps straight up to a slower sample and only decays back down over {@code decay}, so an instance
+ * that stalls (a GC pause, a cold cache) is avoided at once and trusted again gradually. Without samples it decays
+ * towards zero, so an idle instance is tried again eventually.
+ * <p>
+ * Not every caller reports the end of a request: the gateway and WebClient filters skip {@code onComplete} when the
+ * exchange is cancelled (a client hanging up, a timeout upstream of the call). A request still outstanding after
+ * {@code outstanding-timeout} is therefore no longer counted, so a lost completion cannot make an instance look busy
+ * forever.
+ */
+@Component
+public class InstanceLoadStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+    private final long decayNanos;
+    private final long outstandingTimeoutNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InstanceLoadStats(@Value("${loadbalancer.peak-ewma.decay:PT10S}") Duration decay,
+                             @Value("${loadbalancer.peak-ewma.outstanding-timeout:PT30S}") Duration outstandingTimeout) {
+        this(decay, outstandingTimeout, System::nanoTime);
+    }
+
+    InstanceLoadStats(Duration decay, Duration outstandingTimeout, LongSupplier clock) {
+        this.decayNanos = decay.toNanos();
+        this.outstandingTimeoutNanos = outstandingTimeout.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(now);
+        }
+        loadOf(lbResponse.getServer()).started(request, now);
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (completion.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long rtt = -1;
+        if (completion.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() > 0) {
+            rtt = now - timed.getRequestStartTime();
+        }
+        loadOf(lbResponse.getServer()).completed(completion.getLoadBalancerRequest(), rtt, now);
+    }
+
+    /**
+     * Expected cost of sending one more request: the decayed latency times the requests it would queue behind.
+     * An instance without a latency sample yet costs nothing while idle and is avoided while busy, so a new replica
+     * gets one probe at a time until it has answered.
+     */
+    public double cost(ServiceInstance instance) {
+        Load load = loads.get(keyOf(instance));
+        return load == null ? 0 : load.cost(clock.getAsLong());
+    }
+
+    int outstanding(ServiceInstance instance) {
+        Load load = loads.get(keyOf(instance));
+        return load == null ? 0 : load.outstanding(clock.getAsLong());
+    }
+
+    private Load loadOf(ServiceInstance instance) {
+        return loads.computeIfAbsent(keyOf(instance), key -> new Load());
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class Load {
+
+        private static final double UNSAMPLED_BUSY_COST = Double.MAX_VALUE / 2;
+
+        // the same Request object is handed to onStartRequest and onComplete, mapped to when it started
+        private final Map<Object, Long> outstanding = new IdentityHashMap<>();
+        private double ewmaNanos;
+        private long updatedAt;
+        private boolean sampled;
+
+        synchronized void started(Object request, long now) {
+            outstanding.put(request, now);
+        }
+
+        synchronized void completed(Object request, long rttNanos, long now) {
+            outstanding.remove(request);
+            if (rttNanos < 0) {
+                return;
+            }
+            if (!sampled || rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - updatedAt) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            sampled = true;
+            updatedAt = now;
+        }
+
+        synchronized int outstanding(long now) {
+            outstanding.values().removeIf(startedAt -> now - startedAt > outstandingTimeoutNanos);
+            return outstanding.size();
+        }
+
+        synchronized double cost(long now) {
+            int queued = outstanding(now);
+            if (!sampled) {
+                return queued == 0 ? 0 : UNSAMPLED_BUSY_COST;
+            }
+            double decayed = ewmaNanos * Math.exp(-(double) (now - updatedAt) / decayNanos);
+            return decayed * (queued + 1);
+        }
+    }
+}
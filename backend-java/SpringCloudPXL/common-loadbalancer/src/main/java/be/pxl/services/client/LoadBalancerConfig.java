@@ -0,0 +1,13 @@
+package be.pxl.services.client;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picked up by the component scan of every service depending on this module, which all live under
+ * {@code be.pxl.services}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
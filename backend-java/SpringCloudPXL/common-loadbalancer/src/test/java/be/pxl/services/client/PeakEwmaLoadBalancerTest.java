@@ -0,0 +1,150 @@
+package be.pxl.services.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeakEwmaLoadBalancerTest {
+
+    private final AtomicLong clock = new AtomicLong(1);
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "post-service", "10.0.0.1", 8081, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "post-service", "10.0.0.2", 8081, false);
+
+    private InstanceLoadStats stats;
+    private PeakEwmaLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        stats = new InstanceLoadStats(Duration.ofSeconds(10), Duration.ofSeconds(30), clock::get);
+        loadBalancer = new PeakEwmaLoadBalancer("post-service", null, stats);
+    }
+
+    private Request<Object> start(ServiceInstance instance) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        stats.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void complete(Request<Object> request, ServiceInstance instance) {
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, new DefaultResponse(instance)));
+    }
+
+    private void call(ServiceInstance instance, Duration latency) {
+        Request<Object> request = start(instance);
+        clock.addAndGet(latency.toNanos());
+        complete(request, instance);
+    }
+
+    private Map<String, Integer> pick(List<ServiceInstance> instances, int times) {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(instances);
+            picks.merge(response.getServer().getInstanceId(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    @Test
+    void slowerInstance_losesEveryComparison() {
+        call(fast, Duration.ofMillis(5));
+        call(slow, Duration.ofMillis(500));
+
+        Map<String, Integer> picks = pick(List.of(fast, slow), 100);
+
+        assertEquals(100, picks.get("fast"));
+        assertTrue(stats.cost(slow) > stats.cost(fast));
+    }
+
+    @Test
+    void outstandingRequests_raiseTheCost() {
+        call(fast, Duration.ofMillis(10));
+        call(slow, Duration.ofMillis(10));
+        start(fast);
+        start(fast);
+
+        assertEquals(2, stats.outstanding(fast));
+        assertEquals("slow", loadBalancer.choose(List.of(fast, slow)).getServer().getInstanceId());
+    }
+
+    @Test
+    void latencySpike_isAdoptedAtOnceAndForgottenGradually() {
+        call(fast, Duration.ofMillis(10));
+        call(fast, Duration.ofMillis(200));
+        double afterSpike = stats.cost(fast);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        call(fast, Duration.ofMillis(10));
+        double afterRecovery = stats.cost(fast);
+
+        assertEquals(Duration.ofMillis(200).toNanos(), afterSpike, 1e3);
+        assertTrue(afterRecovery < afterSpike / 2);
+        assertTrue(afterRecovery > Duration.ofMillis(10).toNanos());
+    }
+
+    @Test
+    void unsampledInstance_getsOneProbeAtATime() {
+        assertEquals(0, stats.cost(fast));
+
+        start(fast);
+
+        assertTrue(stats.cost(fast) > stats.cost(slow));
+    }
+
+    @Test
+    void discardedCompletion_changesNothing() {
+        Request<Object> request = start(fast);
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request));
+
+        assertEquals(1, stats.outstanding(fast));
+    }
+
+    @Test
+    void cancelledRequest_stopsCountingAfterTheOutstandingTimeout() {
+        call(fast, Duration.ofMillis(10));
+        start(fast);
+        start(slow);
+        assertEquals(1, stats.outstanding(fast));
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertEquals(0, stats.outstanding(fast));
+        assertEquals(0, stats.cost(slow));
+    }
+
+    @Test
+    void lateCompletion_ofAnExpiredRequest_stillSamplesItsLatency() {
+        Request<Object> request = start(slow);
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        complete(request, slow);
+
+        assertEquals(0, stats.outstanding(slow));
+        assertEquals(Duration.ofSeconds(31).toNanos(), stats.cost(slow), 1e3);
+    }
+
+    @Test
+    void twoChoices_alwaysPicksDistinctInstancesAndSpreadsLoad() {
+        ServiceInstance third = new DefaultServiceInstance("third", "post-service", "10.0.0.3", 8081, false);
+
+        Map<String, Integer> picks = pick(List.of(fast, slow, third), 3000);
+
+        assertEquals(3, picks.size());
+        assertSame(fast, loadBalancer.choose(List.of(fast)).getServer());
+        assertFalse(loadBalancer.choose(List.of()).hasServer());
+    }
+}
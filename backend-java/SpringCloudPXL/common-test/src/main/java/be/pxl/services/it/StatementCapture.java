@@ -0,0 +1,132 @@
+package be.pxl.services.it;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL and bind values of every prepared statement the application executes, so an integration test can
+ * EXPLAIN exactly what Hibernate sent for a repository call instead of a hand-written copy of it:
+ * <pre>
+ * &#64;Import(StatementCapture.class)
+ * ...
+ * statements.clear();
+ * repository.findSomething(...);
+ * assertThat(statements.explainKey(statements.last("FROM post"))).isEqualTo("idx_post_status_created");
+ * </pre>
+ */
+public class StatementCapture implements BeanPostProcessor {
+
+    private final List<Statement> executed = new CopyOnWriteArrayList<>();
+    private DataSource dataSource;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource target && dataSource == null) {
+            dataSource = target;
+            return proxy(DataSource.class, target, (method, args, result) ->
+                    result instanceof Connection connection ? capturing(connection) : result);
+        }
+        return bean;
+    }
+
+    public void clear() {
+        executed.clear();
+    }
+
+    /**
+     * The last statement executed whose SQL contains the given fragment, e.g. {@code "from post"}.
+     */
+    public Statement last(String fragment) {
+        for (int i = executed.size() - 1; i >= 0; i--) {
+            if (executed.get(i).sql().toLowerCase().contains(fragment.toLowerCase())) {
+                return executed.get(i);
+            }
+        }
+        throw new AssertionError("No statement containing '" + fragment + "' was executed: " + executed);
+    }
+
+    /**
+     * The index MySQL picks for the first table of the statement, with its original bind values.
+     */
+    public String explainKey(Statement statement) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                if (!rs.next()) {
+                    throw new AssertionError("EXPLAIN returned no rows for " + statement.sql());
+                }
+                return rs.getString("key");
+            }
+        }
+    }
+
+    private Connection capturing(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof PreparedStatement prepared && args != null && args[0] instanceof String sql) {
+                return capturing(prepared, sql);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement capturing(PreparedStatement prepared, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, prepared, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                executed.add(new Statement(sql, new TreeMap<>(parameters)));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Decorator decorator) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return decorator.decorate(method, args, result);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private interface Decorator {
+        Object decorate(Method method, Object[] args, Object result) throws SQLException;
+    }
+
+    public record Statement(String sql, Map<Integer, Object> parameters) {
+
+        @Override
+        public String toString() {
+            return sql + " " + new ArrayList<>(parameters.values());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package be.pxl.services.controller;
+
+import be.pxl.services.domain.dtos.PostDetailResponse;
+import be.pxl.services.service.IPostDetailService;
+import be.pxl.services.service.PostDetailService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Backend-for-frontend views served by the gateway itself; annotated controllers take precedence over the routes.
+ */
+@RestController
+@RequestMapping("/bff/posts")
+public class PostDetailController {
+
+    private final IPostDetailService postDetailService;
+
+    public PostDetailController(IPostDetailService postDetailService) {
+        this.postDetailService = postDetailService;
+    }
+
+    @GetMapping("/{postId}")
+    public Mono<ResponseEntity<PostDetailResponse>> getPostDetail(@PathVariable UUID postId,
+                                                                  @RequestHeader("user") String user,
+                                                                  @RequestParam(defaultValue = "20") int commentLimit) {
+        return postDetailService.getPostDetail(postId, user, commentLimit)
+                .map(detail -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+                    if (detail.status() != null) {
+                        ok.header(PostDetailService.POST_STATUS_HEADER, detail.status());
+                    }
+                    return ok.body(detail);
+                });
+    }
+}
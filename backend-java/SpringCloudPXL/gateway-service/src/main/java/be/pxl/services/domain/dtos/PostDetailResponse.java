@@ -0,0 +1,15 @@
+package be.pxl.services.domain.dtos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The post detail page in one document: the post as post-service returns it and the first page of its comments
+ * as comment-service returns it; {@code comments} is {@code null} when comment-service could not answer.
+ */
+public record PostDetailResponse(JsonNode post, JsonNode comments) {
+
+    public String status() {
+        JsonNode status = post.get("status");
+        return status == null || status.isNull() ? null : status.asText();
+    }
+}
@@ -0,0 +1,46 @@
+package be.pxl.services.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * A complete upstream response held in memory, so it can be written to any number of clients.
+ */
+public record BufferedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    // connection-level headers belong to the original exchange; the length is set again on every write
+    private static final Set<String> NOT_REPLAYED = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        NOT_REPLAYED.addAll(List.of(HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH,
+                "Keep-Alive"));
+    }
+
+    public static BufferedResponse of(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!NOT_REPLAYED.contains(name)) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return new BufferedResponse(status, HttpHeaders.readOnlyHttpHeaders(copy), body);
+    }
+
+    /**
+     * Writes this response to {@code response}; {@code extraHeaders} can add headers on top of the stored ones.
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response, Consumer<HttpHeaders> extraHeaders) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        extraHeaders.accept(response.getHeaders());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+}
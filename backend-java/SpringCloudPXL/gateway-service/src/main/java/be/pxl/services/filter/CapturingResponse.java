@@ -0,0 +1,70 @@
+package be.pxl.services.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Passes the upstream body through to the wrapped response unchanged while keeping a copy of it, so the complete
+ * response can be reused once the exchange is done. Bodies larger than {@code maxBytes} and streamed responses are
+ * not kept.
+ */
+class CapturingResponse extends ServerHttpResponseDecorator {
+
+    private final int maxBytes;
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private volatile boolean complete;
+    private volatile boolean overflow;
+
+    CapturingResponse(ServerHttpResponse delegate, int maxBytes) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        Flux<? extends DataBuffer> tee = Flux.from(body)
+                .doOnNext(this::keep)
+                .doOnComplete(() -> complete = true);
+        return super.writeWith(tee);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        overflow = true;
+        return super.writeAndFlushWith(body);
+    }
+
+    /**
+     * The response as written, or empty if the body was not (completely) kept.
+     */
+    Optional<BufferedResponse> captured() {
+        if (!complete || overflow || getStatusCode() == null) {
+            return Optional.empty();
+        }
+        synchronized (copy) {
+            return Optional.of(BufferedResponse.of(getStatusCode(), getHeaders(), copy.toByteArray()));
+        }
+    }
+
+    private void keep(DataBuffer buffer) {
+        int length = buffer.readableByteCount();
+        synchronized (copy) {
+            if (overflow || copy.size() + length > maxBytes) {
+                overflow = true;
+                copy.reset();
+                return;
+            }
+            byte[] chunk = new byte[length];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+            copy.write(chunk, 0, length);
+        }
+    }
+}
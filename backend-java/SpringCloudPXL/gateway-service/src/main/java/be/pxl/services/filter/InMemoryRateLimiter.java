@@ -0,0 +1,207 @@
+package be.pxl.services.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} for the built-in
+ * {@code RequestRateLimiter} filter that keeps its buckets in memory instead of Redis:
+ * <pre>
+ *   - name: RequestRateLimiter
+ *     args:
+ *       rate-limiter: "#{@inMemoryRateLimiter}"
+ *       key-resolver: "#{@userKeyResolver}"
+ *       in-memory-rate-limiter.replenish-rate: 2
+ *       in-memory-rate-limiter.burst-capacity: 10
+ * </pre>
+ * There is one bucket per route and key. A bucket is taken from with a compare-and-set on its state, so concurrent
+ * requests for the same user never block each other. The limits apply per gateway instance.
+ * <p>
+ * A bucket that has not been used for {@code gateway.rate-limiter.idle-timeout} is dropped; with a timeout at least
+ * as long as a bucket takes to refill, that bucket would have been full again anyway. Beyond
+ * {@code gateway.rate-limiter.max-buckets}, however, buckets are dropped regardless of their state, and a drained
+ * bucket that is dropped comes back full. Those evictions are counted and logged; if they show up, raise the limit.
+ * The key is only as trustworthy as the header it comes from: a client that sends a new {@code user} value on every
+ * request gets a new bucket every time, so this limits well-behaved callers per user rather than stopping abuse.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final Logger log = LoggerFactory.getLogger(InMemoryRateLimiter.class);
+
+    private final Cache<BucketKey, Bucket> buckets;
+    private final Ticker ticker;
+    private final Config defaultConfig = new Config();
+    private final long maxBuckets;
+    private final AtomicLong drainedBucketsEvicted = new AtomicLong();
+
+    @Autowired
+    public InMemoryRateLimiter(ConfigurationService configurationService,
+                               @Value("${gateway.rate-limiter.idle-timeout:PT10M}") Duration idleTimeout,
+                               @Value("${gateway.rate-limiter.max-buckets:100000}") long maxBuckets) {
+        this(configurationService, idleTimeout, maxBuckets, Ticker.systemTicker());
+    }
+
+    InMemoryRateLimiter(ConfigurationService configurationService, Duration idleTimeout, long maxBuckets,
+                        Ticker ticker) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.ticker = ticker;
+        this.maxBuckets = maxBuckets;
+        this.buckets = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxBuckets)
+                .evictionListener((BucketKey key, Bucket bucket, RemovalCause cause) -> onEvicted(key, bucket, cause))
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        Bucket bucket = buckets.get(new BucketKey(routeId, id), key -> new Bucket(config.getBurstCapacity(), ticker.read()));
+        Bucket.Taken taken = bucket.take(config, ticker.read());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(taken.remaining()));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        if (!taken.allowed()) {
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(Math.max(1, Duration.ofNanos(taken.retryAfterNanos())
+                    .toSeconds())));
+        }
+        return Mono.just(new Response(taken.allowed(), headers));
+    }
+
+    private void onEvicted(BucketKey key, Bucket bucket, RemovalCause cause) {
+        if (cause != RemovalCause.SIZE || bucket == null
+                || bucket.isFull(getConfig().getOrDefault(key.routeId(), defaultConfig), ticker.read())) {
+            return;
+        }
+        long evicted = drainedBucketsEvicted.incrementAndGet();
+        // the first one is a warning, the rest would flood the log while the limiter is this full
+        if (evicted == 1) {
+            log.warn("Rate limiter holds {} buckets; dropped a drained bucket of route {}, so that key starts over "
+                    + "with a full bucket. Raise gateway.rate-limiter.max-buckets", maxBuckets, key.routeId());
+        } else {
+            log.debug("Dropped drained rate limiter bucket of route {} ({} so far)", key.routeId(), evicted);
+        }
+    }
+
+    /**
+     * Number of buckets dropped by the {@code max-buckets} bound while not full, each one a key whose limit was reset.
+     */
+    public long drainedBucketsEvicted() {
+        return drainedBucketsEvicted.get();
+    }
+
+    long buckets() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    record BucketKey(String routeId, String id) {
+    }
+
+    /**
+     * Tokens are kept in nano-tokens so refilling at a few tokens per second stays exact without floating point.
+     */
+    static final class Bucket {
+
+        private final AtomicReference<State> state;
+
+        Bucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity * NANOS_PER_SECOND, now));
+        }
+
+        boolean isFull(Config config, long now) {
+            State current = state.get();
+            long capacity = config.getBurstCapacity() * NANOS_PER_SECOND;
+            long elapsed = Math.max(0, now - current.updatedAt());
+            return current.nanoTokens() + Math.min(elapsed, capacity) * config.getReplenishRate() >= capacity;
+        }
+
+        Taken take(Config config, long now) {
+            long capacity = config.getBurstCapacity() * NANOS_PER_SECOND;
+            long cost = config.getRequestedTokens() * NANOS_PER_SECOND;
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.updatedAt());
+                // elapsed nanos * tokens/s = nano-tokens; capped before multiplying so a long idle bucket can't overflow
+                long refill = Math.min(elapsed, capacity) * config.getReplenishRate();
+                long tokens = Math.min(capacity, current.nanoTokens() + refill);
+                boolean allowed = tokens >= cost;
+                State next = new State(allowed ? tokens - cost : tokens, Math.max(now, current.updatedAt()));
+                if (state.compareAndSet(current, next)) {
+                    long retryAfter = allowed ? 0 : (cost - tokens) / Math.max(1, config.getReplenishRate());
+                    return new Taken(allowed, next.nanoTokens() / NANOS_PER_SECOND, retryAfter);
+                }
+            }
+        }
+
+        private record State(long nanoTokens, long updatedAt) {
+        }
+
+        record Taken(boolean allowed, long remaining, long retryAfterNanos) {
+        }
+    }
+
+    public static class Config {
+
+        private long replenishRate = 1;
+        private long burstCapacity = 1;
+        private long requestedTokens = 1;
+
+        public long getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(long replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public long getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(long requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package be.pxl.services.filter;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+@Configuration
+public class RateLimiterConfig {
+
+    public static final String USER_HEADER = "user";
+
+    // no user header means no key, which RequestRateLimiter rejects (deny-empty-key)
+    @Bean
+    public KeyResolver userKeyResolver() {
+        return exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(USER_HEADER));
+    }
+}
@@ -0,0 +1,148 @@
+package be.pxl.services.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Responses stored by {@link ResponseCacheGatewayFilterFactory}, bounded by the total size of their bodies.
+ * <p>
+ * An entry is fresh for its route's TTL and may then be served stale for the route's stale-while-revalidate
+ * window while one background request refreshes it; after that it is gone.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<Key, Entry> entries;
+    private final Set<Key> revalidating = ConcurrentHashMap.newKeySet();
+    private final Ticker ticker;
+    private final int maxEntryBytes;
+
+    @Autowired
+    public ResponseCache(@Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes) {
+        this(maxBytes, maxEntryBytes, Ticker.systemTicker());
+    }
+
+    ResponseCache(long maxBytes, int maxEntryBytes, Ticker ticker) {
+        this.ticker = ticker;
+        this.maxEntryBytes = maxEntryBytes;
+        this.entries = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> key.path().length() + entry.response().body().length)
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return Math.max(0, entry.staleUntil() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Optional<Entry> get(Key key) {
+        return Optional.ofNullable(entries.getIfPresent(key));
+    }
+
+    public void put(Key key, BufferedResponse response, Duration ttl, Duration staleWhileRevalidate) {
+        long now = now();
+        long freshUntil = now + ttl.toNanos();
+        entries.put(key, new Entry(response, now, freshUntil, freshUntil + staleWhileRevalidate.toNanos()));
+    }
+
+    /**
+     * Drops every entry matching the predicate; returns how many were dropped.
+     */
+    public int purge(Predicate<Key> matching) {
+        List<Key> matches = entries.asMap().keySet().stream().filter(matching).toList();
+        entries.invalidateAll(matches);
+        return matches.size();
+    }
+
+    /**
+     * Claims the background refresh of a stale entry; {@code false} if another request already did.
+     */
+    boolean startRevalidation(Key key) {
+        return revalidating.add(key);
+    }
+
+    void finishRevalidation(Key key) {
+        revalidating.remove(key);
+    }
+
+    long now() {
+        return ticker.read();
+    }
+
+    int maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    /**
+     * @param query the query string with its parameters sorted, so their order does not split entries
+     * @param vary  values of the route's vary headers, in configuration order
+     */
+    public record Key(String routeId, String path, String query, List<String> vary) {
+
+        /**
+         * The key of a request on its route, before any filter rewrites the path.
+         */
+        public static Key of(ServerWebExchange exchange, List<String> varyHeaders) {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            String query = request.getQueryParams().entrySet().stream()
+                    .flatMap(param -> param.getValue().stream().map(value -> param.getKey() + "=" + value))
+                    .sorted()
+                    .collect(Collectors.joining("&"));
+            List<String> vary = new ArrayList<>(varyHeaders.size());
+            for (String header : varyHeaders) {
+                vary.add(String.join(",", request.getHeaders().getOrEmpty(header)));
+            }
+            return new Key(route == null ? "" : route.getId(), request.getPath().value(), query, List.copyOf(vary));
+        }
+    }
+
+    public record Entry(BufferedResponse response, long storedAt, long freshUntil, long staleUntil) {
+
+        boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        long ageSeconds(long now) {
+            return Duration.ofNanos(now - storedAt).toSeconds();
+        }
+    }
+}
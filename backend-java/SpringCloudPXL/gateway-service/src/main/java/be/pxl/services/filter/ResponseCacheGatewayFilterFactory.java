@@ -0,0 +1,181 @@
+package be.pxl.services.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Serves repeated GETs on a route from {@link ResponseCache}:
+ * <pre>
+ *   - ResponseCache=5s, 30s          # ttl, stale-while-revalidate
+ *   - name: ResponseCache
+ *     args: { ttl: 10s, vary-headers: user }
+ * </pre>
+ * Only complete 200 responses without cookies, {@code no-store} or {@code private} are stored. A client sending
+ * {@code Cache-Control: no-cache} always goes upstream. A successful write through the route drops the entries whose
+ * path names the same resource id. Responses carry {@code X-Cache: HIT|STALE|MISS}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final Logger log = LoggerFactory.getLogger(ResponseCacheGatewayFilterFactory.class);
+
+    private final ResponseCache cache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "staleWhileRevalidate");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                ? read(exchange, chain, config)
+                : write(exchange, chain);
+    }
+
+    private Mono<Void> read(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ResponseCache.Key key = ResponseCache.Key.of(exchange, config.getVaryHeaders());
+        boolean bypass = String.join(",", exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL))
+                .contains("no-cache");
+        Optional<ResponseCache.Entry> cached = bypass ? Optional.empty() : cache.get(key);
+        if (cached.isPresent()) {
+            ResponseCache.Entry entry = cached.get();
+            long now = cache.now();
+            boolean fresh = entry.isFresh(now);
+            if (!fresh && cache.startRevalidation(key)) {
+                revalidate(exchange, chain, config, key);
+            }
+            return entry.response().writeTo(exchange.getResponse(), headers -> {
+                headers.set(CACHE_STATUS_HEADER, fresh ? "HIT" : "STALE");
+                headers.set(HttpHeaders.AGE, String.valueOf(entry.ageSeconds(now)));
+            });
+        }
+
+        CapturingResponse response = new CapturingResponse(exchange.getResponse(), cache.maxEntryBytes());
+        response.beforeCommit(() -> {
+            response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            return Mono.empty();
+        });
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(done -> store(key, response, config));
+    }
+
+    // the client already has its (stale) answer; the same request is replayed upstream into a response nobody reads
+    private void revalidate(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                            ResponseCache.Key key) {
+        CapturingResponse response = new CapturingResponse(
+                new DiscardingResponse(exchange.getResponse().bufferFactory()), cache.maxEntryBytes());
+        chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(done -> store(key, response, config))
+                .doFinally(signal -> cache.finishRevalidation(key))
+                .subscribe(null, e -> log.warn("Revalidating {} failed: {}", key.path(), e.getMessage()));
+    }
+
+    private void store(ResponseCache.Key key, CapturingResponse response, Config config) {
+        response.captured()
+                .filter(ResponseCacheGatewayFilterFactory::isStorable)
+                .ifPresent(captured -> cache.put(key, captured, config.getTtl(), config.getStaleWhileRevalidate()));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Set<String> ids = resourceIds(exchange.getRequest().getPath().value());
+        return chain.filter(exchange).doOnSuccess(done -> {
+            if (ids.isEmpty() || exchange.getResponse().getStatusCode() == null
+                    || !exchange.getResponse().getStatusCode().is2xxSuccessful()) {
+                return;
+            }
+            int purged = cache.purge(key -> resourceIds(key.path()).stream().anyMatch(ids::contains));
+            log.debug("{} {} purged {} cached responses", exchange.getRequest().getMethod(),
+                    exchange.getRequest().getPath(), purged);
+        });
+    }
+
+    static boolean isStorable(BufferedResponse response) {
+        if (!HttpStatus.OK.equals(response.status()) || response.headers().containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = String.join(",", response.headers().getOrEmpty(HttpHeaders.CACHE_CONTROL));
+        return !cacheControl.contains("no-store") && !cacheControl.contains("private");
+    }
+
+    /**
+     * The UUID segments of a path, e.g. the post id in {@code /post/api/posts/{id}/comments}.
+     */
+    static Set<String> resourceIds(String path) {
+        return Arrays.stream(path.split("/"))
+                .filter(ResponseCacheGatewayFilterFactory::isUuid)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean isUuid(String segment) {
+        if (segment.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(segment);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(10);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private List<String> varyHeaders = List.of();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public Config setTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public Config setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public Config setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+            return this;
+        }
+    }
+}
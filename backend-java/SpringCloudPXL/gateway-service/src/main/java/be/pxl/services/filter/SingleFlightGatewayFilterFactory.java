@@ -0,0 +1,126 @@
+package be.pxl.services.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent identical GETs on a route into one upstream request:
+ * <pre>
+ *   - name: SingleFlight
+ *     args: { max-wait: 2s, vary-headers: user }
+ * </pre>
+ * The first request goes upstream; requests with the same key arriving while it is in flight wait for its response
+ * and get a copy of it, marked {@code X-Single-Flight: SHARED}. A waiter goes upstream itself when the shared response
+ * does not arrive within {@code max-wait}, when the leader fails or is cancelled, when the response is not a 2xx or
+ * 3xx, and when the body is larger than {@code gateway.single-flight.max-body-bytes} or sets a cookie. A single 5xx or
+ * 429 is thus never fanned out to every waiter. Placed after {@code ResponseCache}, it turns a burst
+ * of misses on one key into a single backend call.
+ */
+@Component
+public class SingleFlightGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    public static final String SINGLE_FLIGHT_HEADER = "X-Single-Flight";
+
+    private final Logger log = LoggerFactory.getLogger(SingleFlightGatewayFilterFactory.class);
+
+    private final Map<ResponseCache.Key, Sinks.One<Optional<BufferedResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final int maxBodyBytes;
+
+    public SingleFlightGatewayFilterFactory(@Value("${gateway.single-flight.max-body-bytes:1048576}") int maxBodyBytes) {
+        super(Config.class);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWait");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                ? collapse(exchange, chain, config)
+                : chain.filter(exchange);
+    }
+
+    private Mono<Void> collapse(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ResponseCache.Key key = ResponseCache.Key.of(exchange, config.getVaryHeaders());
+        Sinks.One<Optional<BufferedResponse>> flight = Sinks.one();
+        Sinks.One<Optional<BufferedResponse>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            return lead(exchange, chain, key, flight);
+        }
+        return leader.asMono()
+                .timeout(config.getMaxWait(), Mono.just(Optional.empty()))
+                .flatMap(shared -> shared.isPresent()
+                        ? shared.get().writeTo(exchange.getResponse(),
+                                headers -> headers.set(SINGLE_FLIGHT_HEADER, "SHARED"))
+                        : fallBack(exchange, chain, key));
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache.Key key,
+                            Sinks.One<Optional<BufferedResponse>> flight) {
+        CapturingResponse response = new CapturingResponse(exchange.getResponse(), maxBodyBytes);
+        return chain.filter(exchange.mutate().response(response).build())
+                // the flight leaves the map before waiters are released, so a later request starts a new one
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.tryEmitValue(response.captured().filter(SingleFlightGatewayFilterFactory::isShareable));
+                });
+    }
+
+    private static boolean isShareable(BufferedResponse response) {
+        return (response.status().is2xxSuccessful() || response.status().is3xxRedirection())
+                && !response.headers().containsKey(HttpHeaders.SET_COOKIE);
+    }
+
+    private Mono<Void> fallBack(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache.Key key) {
+        log.debug("No shared response for {}, going upstream", key.path());
+        return chain.filter(exchange);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    public static class Config {
+
+        private Duration maxWait = Duration.ofSeconds(2);
+        private List<String> varyHeaders = List.of();
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public Config setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public Config setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+            return this;
+        }
+    }
+}
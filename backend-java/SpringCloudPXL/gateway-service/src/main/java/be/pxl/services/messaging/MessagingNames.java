@@ -0,0 +1,8 @@
+package be.pxl.services.messaging;
+
+public final class MessagingNames {
+    private MessagingNames() {}
+
+    public static final String POST_EXCHANGE = "post.exchange";
+    public static final String POST_STATUS_RK = "post.status.changed";
+}
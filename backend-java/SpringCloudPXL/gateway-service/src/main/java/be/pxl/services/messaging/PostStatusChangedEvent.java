@@ -0,0 +1,5 @@
+package be.pxl.services.messaging;
+
+import java.util.UUID;
+
+public record PostStatusChangedEvent(UUID postId, String status) {}
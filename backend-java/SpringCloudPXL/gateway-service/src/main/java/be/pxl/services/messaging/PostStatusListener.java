@@ -0,0 +1,41 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.filter.ResponseCache;
+import be.pxl.services.service.PostStatuses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * A post changing status changes what the feed lists and what the post's own pages return, so cached copies of
+ * both are dropped: every entry whose path names the post, and everything cached for the feed routes. The new
+ * status is also remembered for the post detail view.
+ */
+@Component
+public class PostStatusListener {
+
+    private final Logger log = LoggerFactory.getLogger(PostStatusListener.class);
+
+    private final ResponseCache cache;
+    private final PostStatuses postStatuses;
+    private final Set<String> feedRoutes;
+
+    public PostStatusListener(ResponseCache cache, PostStatuses postStatuses,
+                              @Value("${gateway.response-cache.purge-routes-on-post-status:post-feed}") Set<String> feedRoutes) {
+        this.cache = cache;
+        this.postStatuses = postStatuses;
+        this.feedRoutes = feedRoutes;
+    }
+
+    @RabbitListener(queues = "#{cachePurgeQueue.name}")
+    public void onStatusChanged(PostStatusChangedEvent evt) {
+        postStatuses.put(evt.postId(), evt.status());
+        String postId = evt.postId().toString();
+        int purged = cache.purge(key -> feedRoutes.contains(key.routeId()) || key.path().toLowerCase().contains(postId));
+        log.debug("Post {} is now {}, purged {} cached responses", evt.postId(), evt.status(), purged);
+    }
+}
@@ -0,0 +1,34 @@
+package be.pxl.services.messaging;
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public TopicExchange postExchange() {
+        return ExchangeBuilder.topicExchange(POST_EXCHANGE).durable(true).build();
+    }
+
+    // every gateway instance caches on its own, so each one needs its own copy of the status events
+    @Bean
+    public Queue cachePurgeQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cachePurgeBinding(TopicExchange postExchange, Queue cachePurgeQueue) {
+        return BindingBuilder.bind(cachePurgeQueue).to(postExchange).with(POST_STATUS_RK);
+    }
+
+    @Bean
+    public MessageConverter jackson2MessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
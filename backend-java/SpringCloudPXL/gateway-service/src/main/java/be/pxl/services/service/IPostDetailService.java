@@ -0,0 +1,14 @@
+package be.pxl.services.service;
+
+import be.pxl.services.domain.dtos.PostDetailResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface IPostDetailService {
+
+    /**
+     * Fetches the post and the first {@code commentLimit} comments at the same time.
+     */
+    Mono<PostDetailResponse> getPostDetail(UUID postId, String user, int commentLimit);
+}
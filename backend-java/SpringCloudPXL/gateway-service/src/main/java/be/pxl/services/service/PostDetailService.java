@@ -0,0 +1,91 @@
+package be.pxl.services.service;
+
+import be.pxl.services.domain.dtos.PostDetailResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Calls post-service and comment-service concurrently, so the page costs the slower of the two calls instead of
+ * both. The post's status is not known before the calls start; the one the gateway last saw (from an earlier
+ * response or a status event) is sent along with the comment request so comment-service can skip asking
+ * post-service itself.
+ */
+@Service
+public class PostDetailService implements IPostDetailService {
+
+    public static final String USER_HEADER = "user";
+    public static final String POST_STATUS_HEADER = "X-Post-Status";
+
+    private final Logger log = LoggerFactory.getLogger(PostDetailService.class);
+
+    private final WebClient posts;
+    private final WebClient comments;
+    private final PostStatuses postStatuses;
+    private final Duration timeout;
+
+    public PostDetailService(@LoadBalanced WebClient.Builder webClientBuilder, PostStatuses postStatuses,
+                             @Value("${gateway.bff.timeout:PT3S}") Duration timeout) {
+        this.posts = webClientBuilder.clone().baseUrl("http://post-service/api/posts").build();
+        this.comments = webClientBuilder.clone().baseUrl("http://comment-service/api/comments").build();
+        this.postStatuses = postStatuses;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<PostDetailResponse> getPostDetail(UUID postId, String user, int commentLimit) {
+        Mono<JsonNode> post = posts.get()
+                .uri("/{postId}", postId)
+                .header(USER_HEADER, user)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                .onErrorMap(PostDetailService::toStatus);
+
+        Optional<String> knownStatus = postStatuses.get(postId);
+        Mono<JsonNode> commentPage = comments.get()
+                .uri(uri -> uri.path("/posts/{postId}").queryParam("limit", commentLimit).build(postId))
+                .header(USER_HEADER, user)
+                .headers(headers -> knownStatus.ifPresent(status -> headers.set(POST_STATUS_HEADER, status)))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout)
+                // the post is the page; without comments it is still worth showing
+                .onErrorResume(e -> {
+                    log.warn("Comments for post {} unavailable: {}", postId, e.getMessage());
+                    return Mono.just(NullNode.getInstance());
+                });
+
+        return Mono.zip(post, commentPage)
+                .map(both -> new PostDetailResponse(both.getT1(), both.getT2().isNull() ? null : both.getT2()))
+                .doOnNext(detail -> {
+                    if (detail.status() != null) {
+                        postStatuses.put(postId, detail.status());
+                    }
+                });
+    }
+
+    private static Throwable toStatus(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return new ResponseStatusException(response.getStatusCode(), response.getResponseBodyAsString());
+        }
+        if (e instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "post-service did not answer in time");
+        }
+        return new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getMessage(), e);
+    }
+}
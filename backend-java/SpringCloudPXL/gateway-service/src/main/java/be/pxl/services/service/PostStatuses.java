@@ -0,0 +1,31 @@
+package be.pxl.services.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The last status the gateway saw for recently viewed posts, from post-service responses and status events, so
+ * it can be handed to comment-service along with a comment request.
+ */
+@Component
+public class PostStatuses {
+
+    private final Cache<UUID, String> statuses;
+
+    public PostStatuses(@Value("${gateway.bff.known-statuses.max-size:10000}") long maxSize) {
+        this.statuses = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    public Optional<String> get(UUID postId) {
+        return Optional.ofNullable(statuses.getIfPresent(postId));
+    }
+
+    public void put(UUID postId, String status) {
+        statuses.put(postId, status);
+    }
+}
@@ -0,0 +1,51 @@
+package be.pxl.services.controller;
+
+import be.pxl.services.domain.dtos.PostDetailResponse;
+import be.pxl.services.service.IPostDetailService;
+import be.pxl.services.service.PostDetailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+class PostDetailControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IPostDetailService postDetailService = mock(IPostDetailService.class);
+    private final WebTestClient client = WebTestClient.bindToController(new PostDetailController(postDetailService))
+            .build();
+
+    @Test
+    void getPostDetail_returnsMergedDocumentWithStatusHeader() throws Exception {
+        UUID postId = UUID.randomUUID();
+        when(postDetailService.getPostDetail(postId, "bob", 20)).thenReturn(Mono.just(new PostDetailResponse(
+                objectMapper.readTree("{\"title\":\"t\",\"status\":\"PUBLISHED\"}"),
+                objectMapper.readTree("{\"items\":[],\"next\":null}"))));
+
+        client.get().uri("/bff/posts/{postId}", postId).header("user", "bob")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PostDetailService.POST_STATUS_HEADER, "PUBLISHED")
+                .expectBody()
+                .jsonPath("$.post.title").isEqualTo("t")
+                .jsonPath("$.comments.items.length()").isEqualTo(0)
+                .jsonPath("$.status").doesNotExist();
+    }
+
+    @Test
+    void getPostDetail_passesCommentLimit() {
+        UUID postId = UUID.randomUUID();
+        when(postDetailService.getPostDetail(postId, "bob", 5))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+
+        client.get().uri("/bff/posts/{postId}?commentLimit=5", postId).header("user", "bob")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,141 @@
+package be.pxl.services.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.event.FilterArgsEvent;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterTest {
+
+    private static final String ROUTE = "comment-write";
+
+    private final AtomicLong clock = new AtomicLong();
+    private InMemoryRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ConfigurationService configurationService = new ConfigurationService(new DefaultListableBeanFactory(),
+                DefaultConversionService::getSharedInstance, () -> null);
+        limiter = new InMemoryRateLimiter(configurationService, Duration.ofMinutes(10), 1000, clock::get);
+        limiter.getConfig().put(ROUTE, new InMemoryRateLimiter.Config().setReplenishRate(2).setBurstCapacity(5));
+    }
+
+    private RateLimiter.Response request(String user) {
+        return limiter.isAllowed(ROUTE, user).block();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void burst_isAllowedUpToCapacityThenRejected() {
+        for (int i = 4; i >= 0; i--) {
+            RateLimiter.Response response = request("alice");
+            assertTrue(response.isAllowed());
+            assertEquals(String.valueOf(i), response.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+        }
+
+        RateLimiter.Response rejected = request("alice");
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("1", rejected.getHeaders().get(InMemoryRateLimiter.RETRY_AFTER_HEADER));
+    }
+
+    @Test
+    void tokens_refillAtReplenishRateUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            request("alice");
+        }
+
+        advance(Duration.ofMillis(500));
+        assertTrue(request("alice").isAllowed());
+        assertFalse(request("alice").isAllowed());
+
+        advance(Duration.ofHours(1));
+        assertEquals("4", request("alice").getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+    }
+
+    @Test
+    void users_haveSeparateBuckets() {
+        for (int i = 0; i < 5; i++) {
+            request("alice");
+        }
+
+        assertFalse(request("alice").isAllowed());
+        assertTrue(request("bob").isAllowed());
+    }
+
+    @Test
+    void idleBuckets_areEvicted() {
+        request("alice");
+        request("bob");
+        assertEquals(2, limiter.buckets());
+
+        advance(Duration.ofMinutes(11));
+
+        assertEquals(0, limiter.buckets());
+    }
+
+    @Test
+    void drainedBuckets_droppedForSpace_areCounted() {
+        limiter = new InMemoryRateLimiter(new ConfigurationService(new DefaultListableBeanFactory(),
+                DefaultConversionService::getSharedInstance, () -> null), Duration.ofMinutes(10), 1, clock::get);
+        limiter.getConfig().put(ROUTE, new InMemoryRateLimiter.Config().setReplenishRate(2).setBurstCapacity(5));
+        request("alice");
+        request("bob");
+
+        assertEquals(1, limiter.buckets());
+        assertEquals(1, limiter.drainedBucketsEvicted());
+    }
+
+    @Test
+    void routeArgs_areBoundFromTheFilterDefinition() {
+        limiter.onApplicationEvent(new FilterArgsEvent(this, "post-write", Map.of(
+                "in-memory-rate-limiter.replenish-rate", "1",
+                "in-memory-rate-limiter.burst-capacity", "3",
+                "key-resolver", "#{@userKeyResolver}")));
+
+        InMemoryRateLimiter.Config config = limiter.getConfig().get("post-write");
+
+        assertEquals(1, config.getReplenishRate());
+        assertEquals(3, config.getBurstCapacity());
+    }
+
+    @Test
+    void concurrentRequests_neverTakeMoreThanTheBucketHolds() throws InterruptedException {
+        limiter.getConfig().put(ROUTE, new InMemoryRateLimiter.Config().setReplenishRate(1).setBurstCapacity(100));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (request("alice").isAllowed()) {
+                    allowed.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
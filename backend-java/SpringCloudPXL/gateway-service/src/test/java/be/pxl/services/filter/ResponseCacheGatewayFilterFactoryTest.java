@@ -0,0 +1,215 @@
+package be.pxl.services.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Route route = Route.async().id("post-service").uri("lb://post-service")
+            .predicate(exchange -> true).build();
+
+    private ResponseCache cache;
+    private ResponseCacheGatewayFilterFactory factory;
+    private HttpStatus upstreamStatus;
+    private HttpHeaders upstreamHeaders;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(1024 * 1024, 1024, clock::get);
+        factory = new ResponseCacheGatewayFilterFactory(cache);
+        upstreamStatus = HttpStatus.OK;
+        upstreamHeaders = new HttpHeaders();
+    }
+
+    private final GatewayFilterChain upstream = exchange -> {
+        int call = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstreamStatus);
+        response.getHeaders().putAll(upstreamHeaders);
+        byte[] body = ("response " + call).getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    private GatewayFilter filter(Duration ttl, Duration staleWhileRevalidate, String... varyHeaders) {
+        return factory.apply(new ResponseCacheGatewayFilterFactory.Config()
+                .setTtl(ttl)
+                .setStaleWhileRevalidate(staleWhileRevalidate)
+                .setVaryHeaders(List.of(varyHeaders)));
+    }
+
+    private MockServerHttpResponse run(GatewayFilter filter, MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        filter.filter(exchange, upstream).block();
+        return exchange.getResponse();
+    }
+
+    private MockServerHttpResponse get(GatewayFilter filter, String path) {
+        return run(filter, MockServerHttpRequest.get(path).build());
+    }
+
+    private static String body(MockServerHttpResponse response) {
+        return response.getBodyAsString().block();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void repeatedGet_isServedFromCacheWithinTtl() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+
+        MockServerHttpResponse first = get(filter, "/post/api/posts?limit=5&view=full");
+        advance(Duration.ofSeconds(3));
+        MockServerHttpResponse second = get(filter, "/post/api/posts?view=full&limit=5");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("3", second.getHeaders().getFirst(HttpHeaders.AGE));
+        assertEquals("response 1", body(second));
+    }
+
+    @Test
+    void staleEntry_isServedWhileOneBackgroundRequestRefreshesIt() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5), Duration.ofSeconds(30));
+        get(filter, "/post/api/posts");
+        advance(Duration.ofSeconds(6));
+
+        MockServerHttpResponse stale = get(filter, "/post/api/posts");
+        MockServerHttpResponse refreshed = get(filter, "/post/api/posts");
+
+        assertEquals("STALE", stale.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("response 1", body(stale));
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("HIT", refreshed.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("response 2", body(refreshed));
+    }
+
+    @Test
+    void entryPastStaleWindow_goesUpstream() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        get(filter, "/post/api/posts");
+        advance(Duration.ofSeconds(16));
+
+        MockServerHttpResponse response = get(filter, "/post/api/posts");
+
+        assertEquals("MISS", response.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("response 2", body(response));
+    }
+
+    @Test
+    void noCacheRequest_bypassesLookup() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+        get(filter, "/post/api/posts");
+
+        run(filter, MockServerHttpRequest.get("/post/api/posts").header(HttpHeaders.CACHE_CONTROL, "no-cache").build());
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void varyHeaders_splitEntries() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO, "user");
+        UUID postId = UUID.randomUUID();
+
+        run(filter, MockServerHttpRequest.get("/post/api/posts/" + postId).header("user", "alice").build());
+        MockServerHttpResponse bob = run(filter,
+                MockServerHttpRequest.get("/post/api/posts/" + postId).header("user", "bob").build());
+        MockServerHttpResponse aliceAgain = run(filter,
+                MockServerHttpRequest.get("/post/api/posts/" + postId).header("user", "alice").build());
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("response 2", body(bob));
+        assertEquals("response 1", body(aliceAgain));
+    }
+
+    @Test
+    void errorsAndPrivateResponses_areNotStored() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+        upstreamStatus = HttpStatus.NOT_FOUND;
+        get(filter, "/post/api/posts/missing");
+        get(filter, "/post/api/posts/missing");
+
+        upstreamStatus = HttpStatus.OK;
+        upstreamHeaders.setCacheControl("private, max-age=60");
+        get(filter, "/post/api/posts/mine");
+        get(filter, "/post/api/posts/mine");
+
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void oversizedBody_isPassedThroughButNotStored() {
+        cache = new ResponseCache(1024 * 1024, 4, clock::get);
+        factory = new ResponseCacheGatewayFilterFactory(cache);
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+
+        MockServerHttpResponse response = get(filter, "/post/api/posts");
+
+        assertEquals("response 1", body(response));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void successfulWrite_purgesEntriesForTheSameResource() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+        UUID postId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        get(filter, "/comment/api/comments/posts/" + postId);
+        get(filter, "/comment/api/comments/posts/" + otherId);
+
+        run(filter, MockServerHttpRequest.post("/comment/api/comments/posts/" + postId + "/comment").build());
+        get(filter, "/comment/api/comments/posts/" + postId);
+        get(filter, "/comment/api/comments/posts/" + otherId);
+
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void failedWrite_keepsEntries() {
+        GatewayFilter filter = filter(Duration.ofSeconds(10), Duration.ZERO);
+        UUID postId = UUID.randomUUID();
+        get(filter, "/post/api/posts/" + postId);
+
+        upstreamStatus = HttpStatus.FORBIDDEN;
+        run(filter, MockServerHttpRequest.put("/post/api/posts/" + postId).build());
+        get(filter, "/post/api/posts/" + postId);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void resourceIds_findsUuidSegmentsOnly() {
+        UUID postId = UUID.randomUUID();
+
+        assertEquals(Set.of(postId.toString()),
+                ResponseCacheGatewayFilterFactory.resourceIds("/post/api/posts/" + postId.toString().toUpperCase() + "/submit"));
+        assertTrue(ResponseCacheGatewayFilterFactory.resourceIds("/post/api/posts/batch").isEmpty());
+    }
+}
@@ -0,0 +1,188 @@
+package be.pxl.services.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class SingleFlightGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Route route = Route.async().id("post-service").uri("lb://post-service")
+            .predicate(exchange -> true).build();
+
+    private SingleFlightGatewayFilterFactory factory;
+    private Sinks.Empty<Void> upstreamDone;
+    private boolean setCookie;
+    private HttpStatus upstreamStatus;
+
+    @BeforeEach
+    void setUp() {
+        factory = new SingleFlightGatewayFilterFactory(1024);
+        upstreamDone = Sinks.empty();
+        setCookie = false;
+        upstreamStatus = HttpStatus.OK;
+    }
+
+    // every upstream call answers only once the test completes upstreamDone
+    private final GatewayFilterChain upstream = exchange -> {
+        int call = upstreamCalls.incrementAndGet();
+        return upstreamDone.asMono().then(Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(upstreamStatus);
+            if (setCookie) {
+                response.addCookie(ResponseCookie.from("session", "abc").build());
+            }
+            byte[] body = ("response " + call).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    };
+
+    private GatewayFilter filter(Duration maxWait) {
+        return factory.apply(new SingleFlightGatewayFilterFactory.Config().setMaxWait(maxWait));
+    }
+
+    private MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static String body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneUpstreamCall() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        List<MockServerWebExchange> exchanges = List.of(
+                exchange("/post/api/posts/1"), exchange("/post/api/posts/1"), exchange("/post/api/posts/1"));
+        List<Mono<Void>> calls = exchanges.stream().map(exchange -> filter.filter(exchange, upstream).cache()).toList();
+        calls.forEach(Mono::subscribe);
+
+        upstreamDone.tryEmitEmpty();
+        calls.forEach(Mono::block);
+
+        assertEquals(1, upstreamCalls.get());
+        exchanges.forEach(exchange -> assertEquals("response 1", body(exchange)));
+        assertNull(exchanges.get(0).getResponse().getHeaders().getFirst(SingleFlightGatewayFilterFactory.SINGLE_FLIGHT_HEADER));
+        assertEquals("SHARED",
+                exchanges.get(2).getResponse().getHeaders().getFirst(SingleFlightGatewayFilterFactory.SINGLE_FLIGHT_HEADER));
+        assertEquals(0, factory.inFlight());
+    }
+
+    @Test
+    void differentPaths_goUpstreamSeparately() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        Mono<Void> first = filter.filter(exchange("/post/api/posts/1"), upstream).cache();
+        Mono<Void> second = filter.filter(exchange("/post/api/posts/2"), upstream).cache();
+        first.subscribe();
+        second.subscribe();
+
+        upstreamDone.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void waiterPastMaxWait_goesUpstreamItself() {
+        GatewayFilter filter = filter(Duration.ofMillis(50));
+        MockServerWebExchange leader = exchange("/post/api/posts/1");
+        MockServerWebExchange waiter = exchange("/post/api/posts/1");
+        Mono<Void> leading = filter.filter(leader, upstream).cache();
+        leading.subscribe();
+
+        Mono<Void> waiting = filter.filter(waiter, upstream).cache();
+        waiting.subscribe();
+        Mono.delay(Duration.ofMillis(200)).block();
+        upstreamDone.tryEmitEmpty();
+        leading.block();
+        waiting.block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("response 2", body(waiter));
+    }
+
+    @Test
+    void responsesSettingCookies_areNotShared() {
+        setCookie = true;
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        Mono<Void> first = filter.filter(exchange("/post/api/posts/1"), upstream).cache();
+        Mono<Void> second = filter.filter(exchange("/post/api/posts/1"), upstream).cache();
+        first.subscribe();
+        second.subscribe();
+
+        upstreamDone.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void errorResponses_areNotShared() {
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange waiter = exchange("/post/api/posts/1");
+        Mono<Void> first = filter.filter(exchange("/post/api/posts/1"), upstream).cache();
+        Mono<Void> second = filter.filter(waiter, upstream).cache();
+        first.subscribe();
+        second.subscribe();
+
+        upstreamDone.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("response 2", body(waiter));
+        assertNull(waiter.getResponse().getHeaders().getFirst(SingleFlightGatewayFilterFactory.SINGLE_FLIGHT_HEADER));
+    }
+
+    @Test
+    void oversizedBody_isNotShared() {
+        factory = new SingleFlightGatewayFilterFactory(4);
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange waiter = exchange("/post/api/posts/1");
+        Mono<Void> first = filter.filter(exchange("/post/api/posts/1"), upstream).cache();
+        Mono<Void> second = filter.filter(waiter, upstream).cache();
+        first.subscribe();
+        second.subscribe();
+
+        upstreamDone.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("response 2", body(waiter));
+    }
+
+    @Test
+    void nonGetRequests_areNeverCollapsed() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        upstreamDone.tryEmitEmpty();
+        MockServerWebExchange put = MockServerWebExchange.from(MockServerHttpRequest.put("/post/api/posts/1").build());
+        put.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+
+        filter.filter(put, upstream).block();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,55 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.filter.BufferedResponse;
+import be.pxl.services.filter.ResponseCache;
+import be.pxl.services.service.PostStatuses;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostStatusListenerTest {
+
+    private final ResponseCache cache = new ResponseCache(1024 * 1024, 1024);
+    private final PostStatuses postStatuses = new PostStatuses(100);
+    private final PostStatusListener listener = new PostStatusListener(cache, postStatuses, Set.of("post-feed"));
+
+    private ResponseCache.Key cached(String routeId, String path) {
+        ResponseCache.Key key = new ResponseCache.Key(routeId, path, "", List.of());
+        cache.put(key, BufferedResponse.of(HttpStatus.OK, new HttpHeaders(), new byte[]{1}), Duration.ofMinutes(1),
+                Duration.ZERO);
+        return key;
+    }
+
+    @Test
+    void statusChange_purgesFeedAndThePostsOwnEntries() {
+        UUID postId = UUID.randomUUID();
+        ResponseCache.Key feed = cached("post-feed", "/post/api/posts");
+        ResponseCache.Key post = cached("post-service", "/post/api/posts/" + postId);
+        ResponseCache.Key comments = cached("comment-service", "/comment/api/comments/posts/" + postId);
+        ResponseCache.Key otherPost = cached("post-service", "/post/api/posts/" + UUID.randomUUID());
+
+        listener.onStatusChanged(new PostStatusChangedEvent(postId, "PUBLISHED"));
+
+        assertTrue(cache.get(feed).isEmpty());
+        assertTrue(cache.get(post).isEmpty());
+        assertTrue(cache.get(comments).isEmpty());
+        assertTrue(cache.get(otherPost).isPresent());
+    }
+
+    @Test
+    void statusChange_isRememberedForThePostDetailView() {
+        UUID postId = UUID.randomUUID();
+
+        listener.onStatusChanged(new PostStatusChangedEvent(postId, "REJECTED"));
+
+        assertEquals(Optional.of("REJECTED"), postStatuses.get(postId));
+    }
+}
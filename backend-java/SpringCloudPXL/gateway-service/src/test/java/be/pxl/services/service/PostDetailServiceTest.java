@@ -0,0 +1,125 @@
+package be.pxl.services.service;
+
+import be.pxl.services.domain.dtos.PostDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostDetailServiceTest {
+
+    private final UUID postId = UUID.randomUUID();
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, ClientResponse> responses = new ConcurrentHashMap<>();
+    private final PostStatuses postStatuses = new PostStatuses(100);
+
+    private Sinks.Empty<Void> backendsDone;
+    private PostDetailService service;
+
+    @BeforeEach
+    void setUp() {
+        backendsDone = Sinks.empty();
+        backendsDone.tryEmitEmpty();
+        // answers by service host; each answer waits for backendsDone
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return backendsDone.asMono().then(Mono.fromSupplier(() -> responses.get(request.url().getHost())));
+        });
+        service = new PostDetailService(builder, postStatuses, Duration.ofSeconds(1));
+        respond("post-service", HttpStatus.OK, "{\"id\":\"" + postId + "\",\"title\":\"t\",\"status\":\"PUBLISHED\"}");
+        respond("comment-service", HttpStatus.OK, "{\"items\":[{\"content\":\"first\"}],\"next\":null}");
+    }
+
+    private void respond(String host, HttpStatus status, String json) {
+        responses.put(host, ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build());
+    }
+
+    private ClientRequest requestTo(String host) {
+        return requests.stream().filter(request -> request.url().getHost().equals(host)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void postAndComments_areRequestedConcurrentlyAndMerged() {
+        backendsDone = Sinks.empty();
+        Mono<PostDetailResponse> detail = service.getPostDetail(postId, "bob", 20).cache();
+        detail.subscribe();
+
+        // both calls are out before either has answered
+        assertEquals(2, requests.size());
+        backendsDone.tryEmitEmpty();
+        PostDetailResponse response = detail.block();
+
+        assertEquals("PUBLISHED", response.status());
+        assertEquals("first", response.comments().get("items").get(0).get("content").asText());
+        assertEquals("/api/posts/" + postId, requestTo("post-service").url().getPath());
+        assertEquals("/api/comments/posts/" + postId, requestTo("comment-service").url().getPath());
+        assertEquals("limit=20", requestTo("comment-service").url().getQuery());
+        assertEquals("bob", requestTo("comment-service").headers().getFirst(PostDetailService.USER_HEADER));
+    }
+
+    @Test
+    void knownStatus_isForwardedToCommentService() {
+        service.getPostDetail(postId, "bob", 20).block();
+        assertNull(requestTo("comment-service").headers().getFirst(PostDetailService.POST_STATUS_HEADER));
+        assertEquals(Optional.of("PUBLISHED"), postStatuses.get(postId));
+
+        requests.clear();
+        respond("post-service", HttpStatus.OK, "{\"id\":\"" + postId + "\",\"status\":\"PUBLISHED\"}");
+        respond("comment-service", HttpStatus.OK, "{\"items\":[]}");
+        service.getPostDetail(postId, "bob", 20).block();
+
+        assertEquals("PUBLISHED", requestTo("comment-service").headers().getFirst(PostDetailService.POST_STATUS_HEADER));
+    }
+
+    @Test
+    void commentServiceFailure_stillReturnsThePost() {
+        respond("comment-service", HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+
+        PostDetailResponse response = service.getPostDetail(postId, "bob", 20).block();
+
+        assertEquals("t", response.post().get("title").asText());
+        assertNull(response.comments());
+    }
+
+    @Test
+    void postServiceRefusal_keepsItsStatus() {
+        respond("post-service", HttpStatus.FORBIDDEN, "{\"message\":\"You are not allowed to view this post.\"}");
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.getPostDetail(postId, "mallory", 20).block());
+
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+    }
+
+    @Test
+    void slowPostService_timesOut() {
+        backendsDone = Sinks.empty();
+        service = new PostDetailService(WebClient.builder().exchangeFunction(request -> Mono.never()), postStatuses,
+                Duration.ofMillis(50));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.getPostDetail(postId, "bob", 20).block());
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatusCode());
+    }
+}
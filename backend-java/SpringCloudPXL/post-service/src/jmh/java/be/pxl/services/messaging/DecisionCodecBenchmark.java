@@ -0,0 +1,92 @@
+package be.pxl.services.messaging;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a {@link PostReviewedEvent} through the JSON converter versus
+ * {@link CompactDecisionMessageConverter}. Running {@link #main} prints the payload sizes first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecisionCodecBenchmark {
+
+    private final MessageConverter json = new Jackson2JsonMessageConverter();
+    private final MessageConverter compact = new CompactDecisionMessageConverter(json, true);
+
+    private PostReviewedEvent event;
+    private Message jsonMessage;
+    private Message compactMessage;
+
+    @Setup
+    public void setUp() {
+        event = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 42);
+        jsonMessage = json.toMessage(event, new MessageProperties());
+        compactMessage = compact.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message encodeJson() {
+        return json.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message encodeCompact() {
+        return compact.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return json.fromMessage(jsonMessage);
+    }
+
+    @Benchmark
+    public Object decodeCompact() {
+        return compact.fromMessage(compactMessage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var sizes = new DecisionCodecBenchmark();
+        sizes.setUp();
+        printSize("json", sizes.jsonMessage);
+        printSize("compact", sizes.compactMessage);
+        new Runner(new OptionsBuilder().include(DecisionCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // body plus the properties the converter sets, which travel with every message
+    private static void printSize(String codec, Message message) {
+        MessageProperties props = message.getMessageProperties();
+        int headerBytes = length(props.getContentType()) + length(props.getContentEncoding());
+        for (Map.Entry<String, Object> header : props.getHeaders().entrySet()) {
+            headerBytes += header.getKey().length() + String.valueOf(header.getValue()).length();
+        }
+        System.out.printf("%-8s body %4d bytes, properties %4d bytes%n", codec, message.getBody().length, headerBytes);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -2,9 +2,13 @@ package be.pxl.services.controller;
 
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchItem;
+import be.pxl.services.domain.dtos.PostBatchRequest;
 import be.pxl.services.domain.dtos.PostMapper;
 import be.pxl.services.domain.dtos.PostRequest;
 import be.pxl.services.domain.dtos.PostResponse;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.services.IPostService;
 import jakarta.validation.Valid;
 import org.springframework.data.crossstore.ChangeSetPersister;
@@ -16,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static be.pxl.services.domain.dtos.PostMapper.toResponse;
 
@@ -43,17 +46,23 @@ public class PostController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PostResponse>> getPublishedPosts(
+    public ResponseEntity<PageResponse<?>> getPublishedPosts(
             @RequestParam(required = false) String content,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "full") String view
     ) {
-        List<Post> posts = postService.findPublishedPosts(content, author, from, to);
-        List<PostResponse> responses = posts.stream()
-                .map(PostMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(responses);
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(postService.findPublishedSummaries(content, author, from, to, cursor, limit));
+        }
+        if (!"full".equalsIgnoreCase(view)) {
+            throw new BadRequestException("Unknown view: " + view);
+        }
+        PageResponse<Post> posts = postService.findPublishedPosts(content, author, from, to, cursor, limit);
+        return ResponseEntity.ok(posts.map(PostMapper::toResponse));
     }
 
     @GetMapping("/{postId}")
@@ -62,6 +71,16 @@ public class PostController {
         return ResponseEntity.ok(toResponse(post));
     }
 
+    /**
+     * Looks up many posts in one query for internal callers. Posts that do not exist or are not visible
+     * to {@code user} are left out of the result.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<PostBatchItem>> getPostsByIds(@Valid @RequestBody PostBatchRequest request,
+                                                             @RequestHeader("user") String user) {
+        return ResponseEntity.ok(postService.getPostsByIds(request.ids(), request.fields(), user));
+    }
+
     @PutMapping("/{postId}/status/{newStatus}")
     public ResponseEntity<Void> updatePostStatus(
             @PathVariable String postId,
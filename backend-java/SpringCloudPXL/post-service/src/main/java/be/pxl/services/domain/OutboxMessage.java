@@ -0,0 +1,75 @@
+package be.pxl.services.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A message that has to be published to RabbitMQ once the transaction that wrote it commits.
+ * Rows are picked up by {@link be.pxl.services.messaging.OutboxRelay} and deleted after the broker confirmed them.
+ */
+@Entity
+@Table(name = "outbox_message", indexes = @Index(name = "idx_outbox_created", columnList = "createdAt"))
+public class OutboxMessage {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    private String exchange;
+    private String routingKey;
+    @Lob
+    private String payload;
+    private LocalDateTime createdAt;
+
+    public OutboxMessage() {
+    }
+
+    public OutboxMessage(String exchange, String routingKey, String payload) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -13,13 +13,17 @@ import java.util.UUID;
 @Data
 public class Post {
 
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     private String title;
     @Lob
     private String content;
+    @Column(length = EXCERPT_LENGTH + 1)
+    private String excerpt;
     private String author;
     private LocalDateTime dateCreated;
     private LocalDateTime dateUpdated;
@@ -61,6 +65,14 @@ public class Post {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
     public String getAuthor() {
         return author;
     }
@@ -93,6 +105,27 @@ public class Post {
         this.status = status;
     }
 
+    /**
+     * Keeps the excerpt in sync with the content so listings can be served without reading the Lob.
+     */
+    @PrePersist
+    @PreUpdate
+    void refreshExcerpt() {
+        this.excerpt = excerptOf(content);
+    }
+
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = content.strip().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "…";
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
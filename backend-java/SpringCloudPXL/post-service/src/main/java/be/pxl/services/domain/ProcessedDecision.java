@@ -0,0 +1,52 @@
+package be.pxl.services.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The newest review decision applied to a post, one row per post. Used by
+ * {@link be.pxl.services.messaging.DecisionDeduplicator} to recognise redelivered and out-of-order decisions.
+ */
+@Entity
+@Table(name = "processed_decision")
+public class ProcessedDecision {
+
+    @Id
+    private UUID postId;
+
+    private UUID eventId;
+    @Column(name = "sequence_no")
+    private long sequence;
+    private LocalDateTime processedAt;
+
+    public ProcessedDecision() {
+    }
+
+    public ProcessedDecision(UUID postId, UUID eventId, long sequence) {
+        this.postId = postId;
+        this.eventId = eventId;
+        this.sequence = sequence;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
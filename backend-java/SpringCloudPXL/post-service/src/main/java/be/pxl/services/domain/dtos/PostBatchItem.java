@@ -0,0 +1,27 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.PostStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One post in a batch lookup. Fields outside the requested mask are left null and omitted from the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PostBatchItem(
+        UUID id,
+        PostStatus status,
+        String title,
+        String excerpt,
+        String content,
+        String author,
+        LocalDateTime dateCreated,
+        LocalDateTime dateUpdated
+) {
+    public static final Set<String> FIELDS = Set.of("title", "excerpt", "content", "author", "dateCreated", "dateUpdated");
+    // everything but the content, so a default lookup never loads the Lob
+    public static final Set<String> DEFAULT_FIELDS = Set.of("title", "excerpt", "author", "dateCreated", "dateUpdated");
+}
@@ -0,0 +1,21 @@
+package be.pxl.services.domain.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @param fields optional field mask, see {@link PostBatchItem#FIELDS}; {@code id} and {@code status} are always returned
+ */
+public record PostBatchRequest(
+        @NotEmpty(message = "At least one id is required")
+        @Size(max = PostBatchRequest.MAX_IDS, message = "At most " + PostBatchRequest.MAX_IDS + " ids per request")
+        List<UUID> ids,
+
+        Set<String> fields
+) {
+    public static final int MAX_IDS = 100;
+}
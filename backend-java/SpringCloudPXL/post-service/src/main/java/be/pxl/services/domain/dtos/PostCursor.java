@@ -0,0 +1,47 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.Post;
+import be.pxl.services.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the published-posts feed, which is ordered by {@code (dateCreated, id)} descending.
+ * Clients only ever see the encoded form.
+ */
+public record PostCursor(LocalDateTime dateCreated, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getDateCreated(), post.getId());
+    }
+
+    public static PostCursor of(PostSummary post) {
+        return new PostCursor(post.dateCreated(), post.id());
+    }
+
+    public static PostCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new PostCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = dateCreated + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,8 @@ package be.pxl.services.domain.dtos;
 
 import be.pxl.services.domain.Post;
 
+import java.util.Set;
+
 public final class PostMapper {
 
     private PostMapper() {
@@ -25,4 +27,30 @@ public final class PostMapper {
                 post.getDateUpdated()
         );
     }
-}
\ No newline at end of file
+
+    public static PostBatchItem toBatchItem(Post post, Set<String> fields) {
+        return new PostBatchItem(
+                post.getId(),
+                post.getStatus(),
+                fields.contains("title") ? post.getTitle() : null,
+                fields.contains("excerpt") ? post.getExcerpt() : null,
+                fields.contains("content") ? post.getContent() : null,
+                fields.contains("author") ? post.getAuthor() : null,
+                fields.contains("dateCreated") ? post.getDateCreated() : null,
+                fields.contains("dateUpdated") ? post.getDateUpdated() : null
+        );
+    }
+
+    public static PostBatchItem toBatchItem(PostSummary summary, Set<String> fields) {
+        return new PostBatchItem(
+                summary.id(),
+                summary.status(),
+                fields.contains("title") ? summary.title() : null,
+                fields.contains("excerpt") ? summary.excerpt() : null,
+                null,
+                fields.contains("author") ? summary.author() : null,
+                fields.contains("dateCreated") ? summary.dateCreated() : null,
+                fields.contains("dateUpdated") ? summary.dateUpdated() : null
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Listing view of a post: everything but the full content, which is replaced by a short excerpt.
+ * Built directly by a JPQL constructor expression, so the content column is never loaded.
+ */
+public record PostSummary(
+        UUID id,
+        String title,
+        String excerpt,
+        String author,
+        PostStatus status,
+        LocalDateTime dateCreated,
+        LocalDateTime dateUpdated
+) {
+}
@@ -0,0 +1,156 @@
+package be.pxl.services.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.COMPACT_DECISION_CONTENT_TYPE;
+
+/**
+ * Binary encoding of {@link PostReviewedEvent}, negotiated through the content type: messages marked
+ * {@value MessagingNames#COMPACT_DECISION_CONTENT_TYPE} are decoded here, everything else is handed to the fallback
+ * (JSON) converter. Decisions are only written in the compact form when {@code encodeCompact} is set, so consumers
+ * can be taught to read it before any producer starts sending it.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * u8    schema version (1)
+ * u8    flags; bit 0: event id present
+ * 16    event id, only when flagged
+ * 16    post id
+ * u8    decision: 1 APPROVED, 2 REJECTED, 0 other, followed by u16 length + UTF-8 name
+ * 1-10  sequence, unsigned LEB128
+ * </pre>
+ */
+public class CompactDecisionMessageConverter implements MessageConverter {
+
+    static final byte SCHEMA_VERSION = 1;
+    private static final int FLAG_EVENT_ID = 1;
+    // index is the wire code; 0 means the name follows inline
+    private static final String[] DECISIONS = {null, "APPROVED", "REJECTED"};
+    private static final int MAX_VAR_LONG_BYTES = 10;
+
+    private final MessageConverter fallback;
+    private final boolean encodeCompact;
+
+    public CompactDecisionMessageConverter(MessageConverter fallback, boolean encodeCompact) {
+        this.fallback = fallback;
+        this.encodeCompact = encodeCompact;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (encodeCompact && object instanceof PostReviewedEvent event) {
+            byte[] body = encode(event);
+            messageProperties.setContentType(COMPACT_DECISION_CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+        return fallback.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (COMPACT_DECISION_CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return decode(message.getBody());
+        }
+        return fallback.fromMessage(message);
+    }
+
+    static byte[] encode(PostReviewedEvent event) {
+        if (event.postId() == null || event.decision() == null) {
+            throw new MessageConversionException("A decision needs a post id and a decision: " + event);
+        }
+        int code = codeOf(event.decision());
+        byte[] name = code == 0 ? event.decision().getBytes(StandardCharsets.UTF_8) : null;
+        if (name != null && name.length > 0xFFFF) {
+            throw new MessageConversionException("Decision name too long: " + name.length + " bytes");
+        }
+        ByteBuffer buf = ByteBuffer.allocate(2 + 16 + 16 + 1 + (name == null ? 0 : 2 + name.length) + MAX_VAR_LONG_BYTES);
+        buf.put(SCHEMA_VERSION);
+        buf.put((byte) (event.eventId() != null ? FLAG_EVENT_ID : 0));
+        if (event.eventId() != null) {
+            putUuid(buf, event.eventId());
+        }
+        putUuid(buf, event.postId());
+        buf.put((byte) code);
+        if (name != null) {
+            buf.putShort((short) name.length);
+            buf.put(name);
+        }
+        putVarLong(buf, event.sequence());
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    static PostReviewedEvent decode(byte[] body) {
+        ByteBuffer buf = ByteBuffer.wrap(body);
+        try {
+            byte version = buf.get();
+            if (version != SCHEMA_VERSION) {
+                throw new MessageConversionException("Unsupported compact decision schema version " + version);
+            }
+            int flags = buf.get();
+            UUID eventId = (flags & FLAG_EVENT_ID) != 0 ? getUuid(buf) : null;
+            UUID postId = getUuid(buf);
+            int code = buf.get() & 0xFF;
+            String decision;
+            if (code == 0) {
+                byte[] name = new byte[buf.getShort() & 0xFFFF];
+                buf.get(name);
+                decision = new String(name, StandardCharsets.UTF_8);
+            } else if (code < DECISIONS.length) {
+                decision = DECISIONS[code];
+            } else {
+                throw new MessageConversionException("Unknown decision code " + code);
+            }
+            return new PostReviewedEvent(eventId, postId, decision, getVarLong(buf));
+        } catch (BufferUnderflowException ex) {
+            throw new MessageConversionException("Truncated compact decision (" + body.length + " bytes)", ex);
+        }
+    }
+
+    private static int codeOf(String decision) {
+        for (int code = 1; code < DECISIONS.length; code++) {
+            if (DECISIONS[code].equals(decision)) {
+                return code;
+            }
+        }
+        return 0;
+    }
+
+    private static void putUuid(ByteBuffer buf, UUID id) {
+        buf.putLong(id.getMostSignificantBits());
+        buf.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    private static void putVarLong(ByteBuffer buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buf) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new MessageConversionException("Malformed sequence in compact decision");
+    }
+}
@@ -0,0 +1,95 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.ProcessedDecision;
+import be.pxl.services.repository.ProcessedDecisionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers the sequence of the newest decision applied per post, so redelivered and out-of-order decisions
+ * are dropped before they reach the post table.
+ * <p>
+ * The most recently used posts are kept in a bounded in-memory window; posts outside it are looked up in the
+ * {@code processed_decision} table, one query per batch. Events without an {@code eventId} are never dropped.
+ */
+@Component
+public class DecisionDeduplicator {
+
+    private final ProcessedDecisionRepository processedDecisions;
+    private final Map<UUID, Long> window;
+
+    public DecisionDeduplicator(ProcessedDecisionRepository processedDecisions,
+                                @Value("${posts.decisions.dedup.window-size:10000}") int windowSize) {
+        this.processedDecisions = processedDecisions;
+        this.window = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > windowSize;
+            }
+        };
+    }
+
+    /**
+     * Removes every event whose sequence is not newer than the last decision applied to its post.
+     *
+     * @return the number of events removed
+     */
+    public int dropSeen(Map<UUID, PostReviewedEvent> latestByPost) {
+        List<UUID> unknown;
+        synchronized (window) {
+            unknown = latestByPost.values().stream()
+                    .filter(evt -> evt.eventId() != null && !window.containsKey(evt.postId()))
+                    .map(PostReviewedEvent::postId)
+                    .toList();
+        }
+        List<ProcessedDecision> stored = unknown.isEmpty() ? List.of() : processedDecisions.findAllById(unknown);
+
+        synchronized (window) {
+            stored.forEach(row -> window.merge(row.getPostId(), row.getSequence(), Math::max));
+            int before = latestByPost.size();
+            latestByPost.values().removeIf(evt -> {
+                Long applied = evt.eventId() == null ? null : window.get(evt.postId());
+                return applied != null && evt.sequence() <= applied;
+            });
+            return before - latestByPost.size();
+        }
+    }
+
+    /**
+     * Records the events as applied. The table is written in the caller's transaction; the in-memory window
+     * only learns about them once that transaction has committed.
+     */
+    public void record(Collection<PostReviewedEvent> applied) {
+        List<PostReviewedEvent> tracked = applied.stream().filter(evt -> evt.eventId() != null).toList();
+        if (tracked.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        tracked.forEach(evt -> processedDecisions.upsert(evt.postId(), evt.eventId(), evt.sequence(), now));
+
+        Runnable remember = () -> {
+            synchronized (window) {
+                tracked.forEach(evt -> window.merge(evt.postId(), evt.sequence(), Math::max));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember.run();
+                }
+            });
+        } else {
+            remember.run();
+        }
+    }
+}
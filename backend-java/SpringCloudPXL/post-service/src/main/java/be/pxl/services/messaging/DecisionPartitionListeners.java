@@ -0,0 +1,71 @@
+package be.pxl.services.messaging;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static be.pxl.services.messaging.MessagingNames.DECISIONS_CONTAINER_FACTORY;
+
+/**
+ * Registers {@link PostReviewedListener#onReviewed(List)} once per partition queue. Each registration gets its own
+ * single-consumer container, so partitions are applied in parallel while decisions within a partition (and thus
+ * for any one post) are applied in the order they were published.
+ */
+@Component
+public class DecisionPartitionListeners implements RabbitListenerConfigurer {
+
+    static final String ENDPOINT_ID_PREFIX = "decisions-partition-";
+
+    private final PostReviewedListener listener;
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final int partitions;
+
+    public DecisionPartitionListeners(PostReviewedListener listener,
+                                      @Qualifier(DECISIONS_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory containerFactory,
+                                      @Value("${posts.decisions.partitions:4}") int partitions) {
+        this.listener = listener;
+        this.containerFactory = containerFactory;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (MethodRabbitListenerEndpoint endpoint : endpoints()) {
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+
+    List<MethodRabbitListenerEndpoint> endpoints() {
+        Method onReviewed = onReviewedMethod();
+        var handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        return IntStream.range(0, partitions)
+                .mapToObj(partition -> {
+                    var endpoint = new MethodRabbitListenerEndpoint();
+                    endpoint.setId(ENDPOINT_ID_PREFIX + partition);
+                    endpoint.setQueueNames(RabbitConfig.decisionPartitionQueue(partition));
+                    endpoint.setBean(listener);
+                    endpoint.setMethod(onReviewed);
+                    endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+                    return endpoint;
+                })
+                .toList();
+    }
+
+    private static Method onReviewedMethod() {
+        try {
+            return PostReviewedListener.class.getMethod("onReviewed", List.class);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("PostReviewedListener.onReviewed(List) is missing", ex);
+        }
+    }
+}
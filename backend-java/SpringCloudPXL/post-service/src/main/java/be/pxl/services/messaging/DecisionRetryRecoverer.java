@@ -0,0 +1,74 @@
+package be.pxl.services.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+
+/**
+ * Moves decisions the listener failed on to the next retry tier, or to the parking lot once every tier has been
+ * tried. The attempt count travels in the {@value MessagingNames#RETRY_ATTEMPT_HEADER} header.
+ */
+@Component
+public class DecisionRetryRecoverer implements MessageBatchRecoverer {
+
+    private static final int MAX_FAILURE_LENGTH = 500;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final int tiers;
+
+    private final Logger log = LoggerFactory.getLogger(DecisionRetryRecoverer.class);
+
+    public DecisionRetryRecoverer(RabbitTemplate rabbitTemplate, @Value("${posts.decisions.retry.tiers:3}") int tiers) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.tiers = tiers;
+    }
+
+    // used by the one-at-a-time retry container
+    @Override
+    public void recover(Message message, Throwable cause) {
+        recover(List.of(message), cause);
+    }
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        String failure = describe(cause);
+        for (Message message : messages) {
+            MessageProperties properties = message.getMessageProperties();
+            int attempt = attemptOf(message) + 1;
+            properties.setHeader(RETRY_ATTEMPT_HEADER, attempt);
+            properties.setHeader(FAILURE_HEADER, failure);
+            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            if (attempt <= tiers) {
+                rabbitTemplate.send(DECISIONS_DLX, DECISIONS_RETRY_RK_PREFIX + attempt, message);
+            } else {
+                log.error("Parking decision {} after {} failed attempts: {}", properties.getMessageId(), attempt, failure);
+                rabbitTemplate.send(DECISIONS_DLX, PARKING_LOT_RK, message);
+            }
+        }
+        log.warn("{} decision(s) failed and were scheduled for retry or parked: {}", messages.size(), failure);
+    }
+
+    static int attemptOf(Message message) {
+        Object header = message.getMessageProperties().getHeader(RETRY_ATTEMPT_HEADER);
+        return header instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static String describe(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String description = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return description.length() > MAX_FAILURE_LENGTH ? description.substring(0, MAX_FAILURE_LENGTH) : description;
+    }
+}
@@ -4,6 +4,27 @@ public final class MessagingNames {
     private MessagingNames() {}
 
     public static final String REVIEW_EXCHANGE = "review.exchange";
+    public static final String POST_EXCHANGE = "post.exchange";
+    public static final String POST_STATUS_RK = "post.status.changed";
     public static final String POST_REVIEWED_RK = "post.reviewed";
+    // decisions are spread over partition queues review.decisions.0 .. n-1 by a hash of the post id
     public static final String DECISIONS_QUEUE = "review.decisions";
+    public static final String DECISIONS_HASH_EXCHANGE = "review.decisions.hash";
+    public static final String POST_ID_HEADER = "x-post-id";
+    // binary PostReviewedEvent, see CompactDecisionMessageConverter; anything else is JSON
+    public static final String COMPACT_DECISION_CONTENT_TYPE = "application/vnd.pxl.decision+binary";
+    public static final String DECISIONS_CONTAINER_FACTORY = "decisionsContainerFactory";
+    public static final String POST_SUBMITTED_RK = "post.submitted";
+    public static final String SUBMISSIONS_QUEUE = "review.submissions";
+
+    // failed decisions: delayed retry tiers, then the parking lot
+    public static final String DECISIONS_DLX = "review.decisions.dlx";
+    public static final String DECISIONS_RETRY_QUEUE_PREFIX = "review.decisions.retry.";
+    public static final String DECISIONS_RETRY_RK_PREFIX = "retry.";
+    public static final String DECISIONS_RETRIES_QUEUE = "review.decisions.retries";
+    public static final String DECISIONS_RETRY_CONTAINER_FACTORY = "decisionsRetryContainerFactory";
+    public static final String DECISIONS_PARKING_LOT = "review.decisions.parking-lot";
+    public static final String PARKING_LOT_RK = "parking-lot";
+    public static final String RETRY_ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String FAILURE_HEADER = "x-failure";
 }
@@ -0,0 +1,41 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.OutboxMessage;
+import be.pxl.services.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Stores outgoing events in the {@code outbox_message} table so they are committed or rolled back together
+ * with the business change that produced them. Call it from inside the surrounding transaction.
+ */
+@Component
+public class Outbox {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public Outbox(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void enqueue(String exchange, String routingKey, Object event) {
+        outboxRepository.save(toMessage(exchange, routingKey, event));
+    }
+
+    public void enqueueAll(String exchange, String routingKey, Collection<?> events) {
+        outboxRepository.saveAll(events.stream().map(event -> toMessage(exchange, routingKey, event)).toList());
+    }
+
+    private OutboxMessage toMessage(String exchange, String routingKey, Object event) {
+        try {
+            return new OutboxMessage(exchange, routingKey, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), ex);
+        }
+    }
+}
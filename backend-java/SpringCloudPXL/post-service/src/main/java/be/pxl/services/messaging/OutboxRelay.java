@@ -0,0 +1,91 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.OutboxMessage;
+import be.pxl.services.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Drains the outbox table to RabbitMQ.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, so replicas relaying at the same time never send the
+ * same row. It is sent on one channel and deleted in the claiming transaction once the broker confirmed all of it
+ * (requires {@code spring.rabbitmq.publisher-confirm-type=simple}). A failed batch rolls back, stays in the table
+ * and is retried on the next run, so delivery is at-least-once; the outbox row id is sent as the message id.
+ */
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionOperations transactions;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public OutboxRelay(OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate, TransactionOperations transactions,
+                       @Value("${posts.outbox.batch-size:100}") int batchSize,
+                       @Value("${posts.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactions = transactions;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactions.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (AmqpException ex) {
+            log.warn("Outbox relay failed; pending messages will be retried", ex);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockOldest(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        publish(batch);
+        outboxRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox message(s)", batch.size());
+        return batch.size();
+    }
+
+    private void publish(List<OutboxMessage> batch) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage outboxMessage : batch) {
+                operations.send(outboxMessage.getExchange(), outboxMessage.getRoutingKey(), toMessage(outboxMessage));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+
+    private static Message toMessage(OutboxMessage outboxMessage) {
+        return MessageBuilder.withBody(outboxMessage.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(outboxMessage.getId().toString())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package be.pxl.services.messaging;
+
+/**
+ * A decision in the parking lot, as shown by {@link ParkedDecisionsEndpoint}.
+ *
+ * @param attempts how often the listener failed on it
+ * @param failure  the last failure, {@code null} when the broker dead-lettered it directly
+ * @param payload  the message body; compact decisions are shown decoded, or base64 when they cannot be decoded
+ */
+public record ParkedDecision(String messageId, int attempts, String failure, String payload) {
+}
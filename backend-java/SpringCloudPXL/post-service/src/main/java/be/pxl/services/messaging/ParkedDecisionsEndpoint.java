@@ -0,0 +1,136 @@
+package be.pxl.services.messaging;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+
+/**
+ * {@code /actuator/parkeddecisions}: GET lists the oldest parked decisions without removing them, POST moves
+ * them back through {@value MessagingNames#DECISIONS_HASH_EXCHANGE} with a fresh retry budget, so they land in the
+ * partition that owns their post.
+ * Both take an optional {@code limit} (default 50, at most {@value #MAX_MESSAGES}).
+ */
+@Component
+@Endpoint(id = "parkeddecisions")
+public class ParkedDecisionsEndpoint {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_MESSAGES = 500;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final long confirmTimeoutMs;
+
+    private final Logger log = LoggerFactory.getLogger(ParkedDecisionsEndpoint.class);
+
+    public ParkedDecisionsEndpoint(RabbitTemplate rabbitTemplate,
+                                   @Value("${posts.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @ReadOperation
+    public List<ParkedDecision> inspect(@Nullable Integer limit) {
+        int max = bounded(limit);
+        return rabbitTemplate.execute(channel -> {
+            List<ParkedDecision> parked = new ArrayList<>();
+            long lastTag = -1;
+            GetResponse response;
+            while (parked.size() < max && (response = channel.basicGet(DECISIONS_PARKING_LOT, false)) != null) {
+                parked.add(toParkedDecision(response));
+                lastTag = response.getEnvelope().getDeliveryTag();
+            }
+            if (lastTag >= 0) {
+                // put everything back where it was
+                channel.basicNack(lastTag, true, true);
+            }
+            return parked;
+        });
+    }
+
+    @WriteOperation
+    public Map<String, Integer> replay(@Nullable Integer limit) {
+        int max = bounded(limit);
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            long lastTag = -1;
+            GetResponse response;
+            while (count < max && (response = channel.basicGet(DECISIONS_PARKING_LOT, false)) != null) {
+                AMQP.BasicProperties props = response.getProps();
+                if (props.getHeaders() != null && props.getHeaders().containsKey(POST_ID_HEADER)) {
+                    channel.basicPublish(DECISIONS_HASH_EXCHANGE, "", withFreshRetryBudget(props), response.getBody());
+                } else {
+                    // parked before decisions were partitioned; there is no post id to hash on
+                    channel.basicPublish("", RabbitConfig.decisionPartitionQueue(0), withFreshRetryBudget(props),
+                            response.getBody());
+                }
+                lastTag = response.getEnvelope().getDeliveryTag();
+                count++;
+            }
+            if (lastTag >= 0) {
+                // only drop them from the parking lot once the partition queues have them
+                channel.waitForConfirmsOrDie(confirmTimeoutMs);
+                channel.basicAck(lastTag, true);
+            }
+            return count;
+        });
+        log.info("Replayed {} parked decision(s)", replayed);
+        return Map.of("replayed", replayed);
+    }
+
+    private static int bounded(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_MESSAGES));
+    }
+
+    private static ParkedDecision toParkedDecision(GetResponse response) {
+        AMQP.BasicProperties props = response.getProps();
+        Map<String, Object> headers = props.getHeaders() == null ? Map.of() : props.getHeaders();
+        Object attempts = headers.get(RETRY_ATTEMPT_HEADER);
+        Object failure = headers.get(FAILURE_HEADER);
+        return new ParkedDecision(
+                props.getMessageId(),
+                attempts instanceof Number number ? number.intValue() : 0,
+                failure == null ? null : failure.toString(),
+                payloadOf(props, response.getBody())
+        );
+    }
+
+    private static String payloadOf(AMQP.BasicProperties props, byte[] body) {
+        if (!COMPACT_DECISION_CONTENT_TYPE.equals(props.getContentType())) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return CompactDecisionMessageConverter.decode(body).toString();
+        } catch (MessageConversionException ex) {
+            return Base64.getEncoder().encodeToString(body);
+        }
+    }
+
+    private static AMQP.BasicProperties withFreshRetryBudget(AMQP.BasicProperties props) {
+        Map<String, Object> headers = props.getHeaders() == null ? new HashMap<>() : new HashMap<>(props.getHeaders());
+        headers.remove(RETRY_ATTEMPT_HEADER);
+        headers.remove(FAILURE_HEADER);
+        headers.remove("x-death");
+        return props.builder().headers(headers).build();
+    }
+}
@@ -3,5 +3,8 @@ package be.pxl.services.messaging;
 
 import java.util.UUID;
 
-
-public record PostReviewedEvent(UUID postId, String decision) {}
\ No newline at end of file
+/**
+ * @param eventId  unique per decision; {@code null} for events published before review-service sent one
+ * @param sequence increases with every change to the review of a post, so a lower value is an older decision
+ */
+public record PostReviewedEvent(UUID eventId, UUID postId, String decision, long sequence) {}
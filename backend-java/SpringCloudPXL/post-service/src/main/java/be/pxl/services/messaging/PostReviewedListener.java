@@ -2,42 +2,129 @@ package be.pxl.services.messaging;
 
 import be.pxl.services.domain.PostStatus;
 import be.pxl.services.repository.PostRepository;
+import be.pxl.services.services.PostContentIndex;
+import be.pxl.services.services.PublishedPostCache;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
-import static be.pxl.services.messaging.MessagingNames.DECISIONS_QUEUE;
+import static be.pxl.services.messaging.MessagingNames.DECISIONS_RETRIES_QUEUE;
+import static be.pxl.services.messaging.MessagingNames.DECISIONS_RETRY_CONTAINER_FACTORY;
+import static be.pxl.services.messaging.MessagingNames.POST_EXCHANGE;
+import static be.pxl.services.messaging.MessagingNames.POST_STATUS_RK;
 
 @Component
 public class PostReviewedListener {
     private final PostRepository postRepository;
+    private final PostContentIndex contentIndex;
+    private final PublishedPostCache cache;
+    private final Outbox outbox;
+    private final DecisionDeduplicator deduplicator;
 
     private final Logger log = LoggerFactory.getLogger(PostReviewedListener.class);
 
-    public PostReviewedListener(PostRepository posts) {
+    public PostReviewedListener(PostRepository posts, PostContentIndex contentIndex, PublishedPostCache cache, Outbox outbox,
+                                DecisionDeduplicator deduplicator) {
         this.postRepository = posts;
+        this.contentIndex = contentIndex;
+        this.cache = cache;
+        this.outbox = outbox;
+        this.deduplicator = deduplicator;
     }
 
-    @RabbitListener(queues = DECISIONS_QUEUE)
-    public void onReviewed(PostReviewedEvent evt) {
-        log.info("Received decision: postId={}, decision={}", evt.postId(), evt.decision());
-
-        postRepository.findById(evt.postId()).ifPresentOrElse(post -> {
-            String decision = evt.decision() == null ? "" : evt.decision().toUpperCase();
-            switch (decision) {
-                case "APPROVED" -> post.setStatus(PostStatus.PUBLISHED);
-                case "REJECTED" -> post.setStatus(PostStatus.REJECTED);
-                default -> {
-                    log.warn("Ignoring unknown decision '{}' for post {}", evt.decision(), evt.postId());
-                    return;
-                }
+    /**
+     * Applies a batch of decisions with one bulk update per resulting status. If several decisions for the
+     * same post are in the batch, the newest one wins; decisions already applied (or superseded) before are
+     * dropped without touching the post.
+     * Registered once per partition queue by {@link DecisionPartitionListeners}.
+     */
+    @Transactional
+    public void onReviewed(List<PostReviewedEvent> events) {
+        log.info("Received {} decision(s)", events.size());
+        apply(events);
+    }
+
+    /**
+     * Decisions coming back from a retry tier are applied one at a time, so a failing one no longer takes the
+     * rest of its original batch down with it.
+     */
+    @Transactional
+    @RabbitListener(queues = DECISIONS_RETRIES_QUEUE, containerFactory = DECISIONS_RETRY_CONTAINER_FACTORY)
+    public void onRetried(PostReviewedEvent event) {
+        log.info("Retrying decision for post {}", event.postId());
+        apply(List.of(event));
+    }
+
+    private void apply(List<PostReviewedEvent> events) {
+        Map<UUID, PostReviewedEvent> newest = new LinkedHashMap<>();
+        for (PostReviewedEvent evt : events) {
+            if (statusFor(evt) == null) {
+                log.warn("Ignoring unknown decision '{}' for post {}", evt.decision(), evt.postId());
+                continue;
+            }
+            // a higher sequence is a newer decision; between equal ones (legacy events) the later one wins
+            newest.merge(evt.postId(), evt, (current, next) -> next.sequence() >= current.sequence() ? next : current);
+        }
+        int seen = deduplicator.dropSeen(newest);
+        if (seen > 0) {
+            log.info("Dropped {} redelivered or outdated decision(s)", seen);
+        }
+        if (newest.isEmpty()) {
+            return;
+        }
+        Set<UUID> existing = new HashSet<>(postRepository.findIdsByIdIn(newest.keySet()));
+        newest.keySet().removeIf(postId -> {
+            if (existing.contains(postId)) {
+                return false;
             }
-            post.setDateUpdated(LocalDateTime.now());
-            postRepository.save(post);
-            log.info("Post {} updated to {}", post.getId(), post.getStatus());
-        }, () -> log.warn("Post {} not found; dropping decision", evt.postId()));
+            log.warn("Post {} not found; dropping decision", postId);
+            return true;
+        });
+        if (newest.isEmpty()) {
+            return;
+        }
+        Map<UUID, PostStatus> latest = new LinkedHashMap<>();
+        newest.forEach((postId, evt) -> latest.put(postId, statusFor(evt)));
+
+        Map<PostStatus, List<UUID>> byStatus = new EnumMap<>(PostStatus.class);
+        latest.forEach((postId, status) -> byStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(postId));
+
+        LocalDateTime now = LocalDateTime.now();
+        byStatus.forEach((status, ids) -> {
+            int updated = postRepository.updateStatusByIdIn(ids, status, now);
+            log.info("{} post(s) updated to {}", updated, status);
+        });
+
+        List<UUID> published = byStatus.getOrDefault(PostStatus.PUBLISHED, List.of());
+        if (!published.isEmpty()) {
+            postRepository.findContentByIdIn(published).forEach(row -> contentIndex.index(row.getId(), row.getDateCreated(), row.getContent()));
+        }
+        byStatus.getOrDefault(PostStatus.REJECTED, List.of()).forEach(contentIndex::remove);
+        cache.evictAll(latest.keySet());
+        outbox.enqueueAll(POST_EXCHANGE, POST_STATUS_RK, latest.entrySet().stream()
+                .map(entry -> new PostStatusChangedEvent(entry.getKey(), entry.getValue()))
+                .toList());
+        deduplicator.record(newest.values());
+    }
+
+    private static PostStatus statusFor(PostReviewedEvent evt) {
+        String decision = evt.decision() == null ? "" : evt.decision().toUpperCase();
+        return switch (decision) {
+            case "APPROVED" -> PostStatus.PUBLISHED;
+            case "REJECTED" -> PostStatus.REJECTED;
+            default -> null;
+        };
     }
-}
\ No newline at end of file
+}
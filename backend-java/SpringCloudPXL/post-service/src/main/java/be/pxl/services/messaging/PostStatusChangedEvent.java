@@ -0,0 +1,9 @@
+package be.pxl.services.messaging;
+
+
+import be.pxl.services.domain.PostStatus;
+
+import java.util.UUID;
+
+
+public record PostStatusChangedEvent(UUID postId, PostStatus status) {}
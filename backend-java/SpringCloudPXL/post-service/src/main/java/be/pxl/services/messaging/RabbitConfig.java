@@ -1,14 +1,21 @@
 package be.pxl.services.messaging;
 
 import org.springframework.amqp.core.*;
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static be.pxl.services.messaging.MessagingNames.*;
 
 
@@ -21,18 +28,103 @@ public class RabbitConfig {
     }
 
     @Bean
-    public Queue decisionsQueue() {
-        return QueueBuilder.durable(DECISIONS_QUEUE).build();
+    public TopicExchange postExchange() {
+        return ExchangeBuilder.topicExchange(POST_EXCHANGE).durable(true).build();
+    }
+
+    /**
+     * Consistent-hash exchange (rabbitmq_consistent_hash_exchange plugin) that spreads decisions over the partition
+     * queues by the {@value MessagingNames#POST_ID_HEADER} header, so all decisions for one post land in the same
+     * queue.
+     */
+    @Bean
+    public CustomExchange decisionsHashExchange() {
+        return new CustomExchange(DECISIONS_HASH_EXCHANGE, "x-consistent-hash", true, false,
+                Map.of("hash-header", POST_ID_HEADER));
+    }
+
+    @Bean
+    public Binding decisionsHashBinding(TopicExchange reviewExchange, CustomExchange decisionsHashExchange) {
+        return BindingBuilder.bind(decisionsHashExchange).to(reviewExchange).with(POST_REVIEWED_RK);
+    }
+
+    /**
+     * One queue per partition, each with equal weight on the hash ring and a single active consumer, so decisions
+     * for a post are applied in order even with several replicas. Messages the listener container rejects outright
+     * (e.g. unreadable payloads) go straight to the parking lot; listener failures are routed through the retry
+     * tiers by {@link DecisionRetryRecoverer}.
+     */
+    @Bean
+    public Declarables decisionPartitions(CustomExchange decisionsHashExchange,
+                                          @Value("${posts.decisions.partitions:4}") int partitions) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(decisionPartitionQueue(partition))
+                    .deadLetterExchange(DECISIONS_DLX)
+                    .deadLetterRoutingKey(PARKING_LOT_RK)
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            // for a consistent-hash exchange the binding key is the queue's weight
+            declarables.add(BindingBuilder.bind(queue).to(decisionsHashExchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String decisionPartitionQueue(int partition) {
+        return DECISIONS_QUEUE + "." + partition;
+    }
+
+    /**
+     * Retry tier {@code n} holds a failed decision for {@code initialDelayMs * multiplier^(n-1)} and then
+     * dead-letters it to {@link MessagingNames#DECISIONS_RETRIES_QUEUE}, which is consumed one message at a time
+     * so a poison message cannot drag the rest of its original batch along.
+     */
+    @Bean
+    public Declarables decisionRetryTopology(
+            @Value("${posts.decisions.retry.tiers:3}") int tiers,
+            @Value("${posts.decisions.retry.initial-delay-ms:1000}") long initialDelayMs,
+            @Value("${posts.decisions.retry.multiplier:5}") int multiplier) {
+        DirectExchange dlx = ExchangeBuilder.directExchange(DECISIONS_DLX).durable(true).build();
+        Queue parkingLot = QueueBuilder.durable(DECISIONS_PARKING_LOT).build();
+        Queue retries = QueueBuilder.durable(DECISIONS_RETRIES_QUEUE)
+                .deadLetterExchange(DECISIONS_DLX)
+                .deadLetterRoutingKey(PARKING_LOT_RK)
+                .build();
+
+        List<Declarable> declarables = new ArrayList<>(List.of(
+                dlx, parkingLot, retries, BindingBuilder.bind(parkingLot).to(dlx).with(PARKING_LOT_RK)));
+        long ttl = initialDelayMs;
+        for (int tier = 1; tier <= tiers; tier++) {
+            Queue retry = QueueBuilder.durable(DECISIONS_RETRY_QUEUE_PREFIX + tier)
+                    .ttl((int) ttl)
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(DECISIONS_RETRIES_QUEUE)
+                    .build();
+            declarables.add(retry);
+            declarables.add(BindingBuilder.bind(retry).to(dlx).with(DECISIONS_RETRY_RK_PREFIX + tier));
+            ttl *= multiplier;
+        }
+        return new Declarables(declarables);
+    }
+
+    // declared here as well as in review-service so submissions are kept while review-service is down
+    @Bean
+    public Queue submissionsQueue() {
+        return QueueBuilder.durable(SUBMISSIONS_QUEUE).build();
     }
 
     @Bean
-    public Binding decisionsBinding(TopicExchange reviewExchange, Queue decisionsQueue) {
-        return BindingBuilder.bind(decisionsQueue).to(reviewExchange).with(POST_REVIEWED_RK);
+    public Binding submissionsBinding(TopicExchange reviewExchange, Queue submissionsQueue) {
+        return BindingBuilder.bind(submissionsQueue).to(reviewExchange).with(POST_SUBMITTED_RK);
     }
 
+    /**
+     * Reads decisions in either encoding review-service may send; everything this service publishes stays JSON.
+     */
     @Bean
-    public MessageConverter jackson2MessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter() {
+        return new CompactDecisionMessageConverter(new Jackson2JsonMessageConverter(), false);
     }
 
     @Bean
@@ -45,4 +137,55 @@ public class RabbitConfig {
         f.setMessageConverter(messageConverter);
         return f;
     }
+
+    /**
+     * Delivers review decisions as lists of up to {@code batchSize} messages, or whatever arrived before
+     * no new message showed up for {@code receiveTimeoutMs}. The whole batch is acked at once; when the listener
+     * fails, every message of the batch is handed to the first retry tier instead of being requeued.
+     * Every partition queue gets its own container with a single consumer, see {@link DecisionPartitionListeners}.
+     */
+    @Bean(DECISIONS_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory decisionsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            DecisionRetryRecoverer retryRecoverer,
+            @Value("${posts.decisions.batch-size:50}") int batchSize,
+            @Value("${posts.decisions.receive-timeout-ms:200}") long receiveTimeoutMs) {
+        var f = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(f, connectionFactory);
+        f.setMessageConverter(messageConverter);
+        f.setConcurrentConsumers(1);
+        f.setMaxConcurrentConsumers(1);
+        f.setBatchListener(true);
+        f.setConsumerBatchEnabled(true);
+        f.setBatchSize(batchSize);
+        f.setReceiveTimeout(receiveTimeoutMs);
+        f.setDefaultRequeueRejected(false);
+        f.setAdviceChain(retryAdvice(retryRecoverer));
+        return f;
+    }
+
+    @Bean(DECISIONS_RETRY_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory decisionsRetryContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            DecisionRetryRecoverer retryRecoverer) {
+        var f = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(f, connectionFactory);
+        f.setMessageConverter(messageConverter);
+        f.setPrefetchCount(1);
+        f.setDefaultRequeueRejected(false);
+        f.setAdviceChain(retryAdvice(retryRecoverer));
+        return f;
+    }
+
+    // no in-memory retries: a failure goes to the recoverer right away, which delays it on the broker
+    private static Advice retryAdvice(DecisionRetryRecoverer retryRecoverer) {
+        return RetryInterceptorBuilder.stateless()
+                .maxAttempts(1)
+                .recoverer(retryRecoverer)
+                .build();
+    }
 }
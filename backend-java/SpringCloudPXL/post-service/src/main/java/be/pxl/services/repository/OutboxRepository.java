@@ -0,0 +1,23 @@
+package be.pxl.services.repository;
+
+import be.pxl.services.domain.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, UUID> {
+
+    /**
+     * Locks the oldest outbox messages. Rows another relay is sending are skipped instead of waited for,
+     * so every running instance sends a disjoint batch.
+     * Must run inside a transaction; the locks are held until it commits.
+     */
+    @Query(value = "SELECT * FROM outbox_message " +
+            "ORDER BY created_at, id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockOldest(@Param("limit") int limit);
+}
@@ -2,29 +2,145 @@ package be.pxl.services.repository;
 
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PostSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
 
+    // rows written before the excerpt column existed fall back to a prefix of the content
+    String SUMMARY_SELECT =
+            "SELECT new be.pxl.services.domain.dtos.PostSummary(p.id, p.title, " +
+            "COALESCE(p.excerpt, SUBSTRING(cast(p.content as string), 1, " + Post.EXCERPT_LENGTH + ")), " +
+            "p.author, p.status, p.dateCreated, p.dateUpdated) FROM Post p ";
+
+    String CONTENT_FILTER =
+            "AND (:contentFilter IS NULL OR LOWER(cast(p.content as string)) LIKE LOWER(CONCAT('%', :contentFilter, '%'))) ";
+
+    String METADATA_FILTERS =
+            "AND (:authorFilter IS NULL OR LOWER(p.author) LIKE LOWER(CONCAT('%', :authorFilter, '%'))) " +
+            "AND (:from IS NULL OR p.dateCreated >= :from) " +
+            "AND (:to IS NULL OR p.dateCreated <= :to) ";
+
+    String AFTER_CURSOR =
+            "AND (:cursorDate IS NULL OR p.dateCreated < :cursorDate " +
+            "OR (p.dateCreated = :cursorDate AND p.id < :cursorId)) ";
+
+    String FEED_ORDER = "ORDER BY p.dateCreated DESC, p.id DESC";
+
     @Query("SELECT p FROM Post p " +
             "WHERE p.status = :status " +
-            "AND (:#{#contentFilter == null} IS TRUE OR LOWER(cast(p.content as string)) LIKE LOWER(CONCAT('%', :contentFilter, '%'))) " +
-            "AND (:#{#authorFilter == null} IS TRUE OR LOWER(p.author) LIKE LOWER(CONCAT('%', :authorFilter, '%'))) " +
-            "AND (:#{#from == null} IS TRUE OR p.dateCreated >= :from) " +
-            "AND (:#{#to == null} IS TRUE OR p.dateCreated <= :to) " +
-            "ORDER BY p.dateCreated DESC")
+            CONTENT_FILTER +
+            METADATA_FILTERS +
+            AFTER_CURSOR +
+            FEED_ORDER)
     List<Post> findByStatusAndFilters(
             @Param("status") PostStatus status,
             @Param("contentFilter") String contentFilter,
             @Param("authorFilter") String authorFilter,
             @Param("from") LocalDateTime from,
-            @Param("to") LocalDateTime to
+            @Param("to") LocalDateTime to,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
     );
+
+    /**
+     * Same as {@link #findByStatusAndFilters} but restricted to candidate ids from the content index, so the
+     * content column never has to be scanned. Callers pass the candidates a page at a time, in feed order (see
+     * {@link be.pxl.services.services.PostContentIndex#inFeedOrder}), never every match at once.
+     */
+    @Query("SELECT p FROM Post p " +
+            "WHERE p.id IN :ids " +
+            "AND p.status = :status " +
+            METADATA_FILTERS +
+            AFTER_CURSOR +
+            FEED_ORDER)
+    List<Post> findByIdInAndStatusAndFilters(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") PostStatus status,
+            @Param("authorFilter") String authorFilter,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
+    );
+
+    @Query(SUMMARY_SELECT +
+            "WHERE p.status = :status " +
+            CONTENT_FILTER +
+            METADATA_FILTERS +
+            AFTER_CURSOR +
+            FEED_ORDER)
+    List<PostSummary> findSummariesByStatusAndFilters(
+            @Param("status") PostStatus status,
+            @Param("contentFilter") String contentFilter,
+            @Param("authorFilter") String authorFilter,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
+    );
+
+    @Query(SUMMARY_SELECT +
+            "WHERE p.id IN :ids " +
+            "AND p.status = :status " +
+            METADATA_FILTERS +
+            AFTER_CURSOR +
+            FEED_ORDER)
+    List<PostSummary> findSummariesByIdInAndStatusAndFilters(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") PostStatus status,
+            @Param("authorFilter") String authorFilter,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
+    );
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<UUID> findIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id AS id, p.dateCreated AS dateCreated, p.content AS content FROM Post p WHERE p.status = :status")
+    Slice<ContentView> findContentByStatus(@Param("status") PostStatus status, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.dateCreated AS dateCreated, p.content AS content FROM Post p WHERE p.id IN :ids")
+    List<ContentView> findContentByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Sets the status of all given posts in one statement. Bypasses the persistence context, so loaded
+     * {@link Post} instances are stale afterwards; returns the number of posts that exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Post p SET p.status = :status, p.dateUpdated = :dateUpdated WHERE p.id IN :ids")
+    int updateStatusByIdIn(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") PostStatus status,
+            @Param("dateUpdated") LocalDateTime dateUpdated
+    );
+
+    interface ContentView {
+        UUID getId();
+
+        LocalDateTime getDateCreated();
+
+        String getContent();
+    }
 }
@@ -0,0 +1,28 @@
+package be.pxl.services.repository;
+
+import be.pxl.services.domain.ProcessedDecision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ProcessedDecisionRepository extends JpaRepository<ProcessedDecision, UUID> {
+
+    /**
+     * Inserts or advances the row of a post; a lower sequence than the stored one leaves the row as it is.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_decision (post_id, event_id, sequence_no, processed_at) " +
+            "VALUES (:postId, :eventId, :sequence, :processedAt) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "event_id = IF(VALUES(sequence_no) > sequence_no, VALUES(event_id), event_id), " +
+            "processed_at = IF(VALUES(sequence_no) > sequence_no, VALUES(processed_at), processed_at), " +
+            "sequence_no = GREATEST(sequence_no, VALUES(sequence_no))", nativeQuery = true)
+    void upsert(@Param("postId") UUID postId,
+                @Param("eventId") UUID eventId,
+                @Param("sequence") long sequence,
+                @Param("processedAt") LocalDateTime processedAt);
+}
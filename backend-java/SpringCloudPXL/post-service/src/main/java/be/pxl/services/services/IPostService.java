@@ -2,11 +2,15 @@ package be.pxl.services.services;
 
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchItem;
+import be.pxl.services.domain.dtos.PostSummary;
 import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -16,10 +20,16 @@ public interface IPostService {
 
     Post editPost(UUID postId, Post request, String user) throws ChangeSetPersister.NotFoundException;
 
-    List<Post> findPublishedPosts(String content, String author, LocalDate dateFrom, LocalDate dateTo);
+    PageResponse<Post> findPublishedPosts(String content, String author, LocalDate dateFrom, LocalDate dateTo,
+                                          String cursor, int limit);
+
+    PageResponse<PostSummary> findPublishedSummaries(String content, String author, LocalDate dateFrom, LocalDate dateTo,
+                                                     String cursor, int limit);
 
     Post getPostById(UUID postId, String user);
 
+    List<PostBatchItem> getPostsByIds(List<UUID> postIds, Set<String> fields, String user);
+
     Post submitForReview(UUID postId, String user);
 
     void updatePostStatus(UUID postId, PostStatus newStatus);
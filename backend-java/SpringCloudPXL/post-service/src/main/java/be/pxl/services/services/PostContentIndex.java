@@ -0,0 +1,280 @@
+package be.pxl.services.services;
+
+import be.pxl.services.domain.Post;
+import be.pxl.services.domain.PostStatus;
+import be.pxl.services.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the content of published posts.
+ * <p>
+ * Content is split into lower-cased letter/digit tokens. A query matches a post when every query
+ * token is a prefix of at least one token of the post, so "spring boo" finds "Spring Boot".
+ * The creation date of every indexed post is kept as well, so matches can be handed to the database
+ * one feed page at a time.
+ * <p>
+ * Changes made inside a transaction are applied once it commits. Posts changed while a rebuild scans the table keep
+ * that change: the scan neither overwrites nor removes them, as it may have read them before the change committed.
+ */
+@Component
+public class PostContentIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final PostRepository postRepository;
+
+    private final ConcurrentHashMap<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+    // sorted view of the postings keys, used for prefix lookups
+    private final ConcurrentSkipListSet<String> dictionary = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<UUID, Set<String>> tokensByPost = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, LocalDateTime> dateCreatedByPost = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // serialises applying changes against the rebuild's check of changedDuringRebuild
+    private final Object changeLock = new Object();
+    private Set<UUID> changedDuringRebuild;
+
+    private final Logger log = LoggerFactory.getLogger(PostContentIndex.class);
+
+    public PostContentIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${posts.search.rebuild-interval-ms:300000}",
+            fixedDelayString = "${posts.search.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (changeLock) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            Set<UUID> seen = new HashSet<>();
+            Slice<PostRepository.ContentView> page = postRepository.findContentByStatus(
+                    PostStatus.PUBLISHED, PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            while (true) {
+                synchronized (changeLock) {
+                    page.forEach(row -> {
+                        if (!changedDuringRebuild.contains(row.getId())) {
+                            indexNow(row.getId(), row.getDateCreated(), row.getContent());
+                        }
+                        seen.add(row.getId());
+                    });
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = postRepository.findContentByStatus(PostStatus.PUBLISHED, page.nextPageable());
+            }
+            synchronized (changeLock) {
+                tokensByPost.keySet().stream()
+                        .filter(id -> !seen.contains(id) && !changedDuringRebuild.contains(id))
+                        .toList()
+                        .forEach(this::removeNow);
+            }
+            ready = true;
+            log.info("Content index rebuilt: {} posts, {} distinct tokens", tokensByPost.size(), postings.size());
+        } catch (RuntimeException ex) {
+            log.warn("Content index rebuild failed; content search falls back to the database", ex);
+        } finally {
+            synchronized (changeLock) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Brings the index in line with the current state of a post: published posts are (re)indexed,
+     * everything else is removed.
+     */
+    public void update(Post post) {
+        if (post.getStatus() == PostStatus.PUBLISHED) {
+            index(post.getId(), post.getDateCreated(), post.getContent());
+        } else {
+            remove(post.getId());
+        }
+    }
+
+    /**
+     * (Re)indexes the content of a post the caller knows to be published.
+     */
+    public void index(UUID postId, LocalDateTime dateCreated, String content) {
+        afterCommit(postId, () -> indexNow(postId, dateCreated, content));
+    }
+
+    public void remove(UUID postId) {
+        afterCommit(postId, () -> removeNow(postId));
+    }
+
+    private void afterCommit(UUID postId, Runnable change) {
+        Runnable apply = () -> {
+            synchronized (changeLock) {
+                change.run();
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(postId);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void indexNow(UUID postId, LocalDateTime dateCreated, String content) {
+        Set<String> tokens = tokenize(content);
+        if (dateCreated != null) {
+            // as stored in the DATETIME(6) column, so the order below agrees with the database's
+            dateCreatedByPost.put(postId, dateCreated.truncatedTo(ChronoUnit.MICROS));
+        }
+        tokensByPost.compute(postId, (id, previous) -> {
+            if (previous != null) {
+                previous.stream().filter(token -> !tokens.contains(token)).forEach(token -> unlink(token, id));
+            }
+            tokens.forEach(token -> postings.compute(token, (t, ids) -> {
+                Set<UUID> target = ids;
+                if (target == null) {
+                    target = ConcurrentHashMap.newKeySet();
+                    dictionary.add(t);
+                }
+                target.add(id);
+                return target;
+            }));
+            return tokens;
+        });
+    }
+
+    private void removeNow(UUID postId) {
+        tokensByPost.computeIfPresent(postId, (id, tokens) -> {
+            tokens.forEach(token -> unlink(token, id));
+            return null;
+        });
+        dateCreatedByPost.remove(postId);
+    }
+
+    /**
+     * Returns the ids of published posts matching the query, or empty when the index cannot answer
+     * (not built yet, or the query has no searchable tokens) and the caller should query the database.
+     */
+    public Optional<Set<UUID>> search(String query) {
+        Set<String> queryTokens = tokenize(query);
+        if (!ready || queryTokens.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<UUID> result = null;
+        for (String token : queryTokens) {
+            Set<UUID> matches = new HashSet<>();
+            for (String indexed : dictionary.subSet(token, true, token + Character.MAX_VALUE, true)) {
+                Set<UUID> ids = postings.get(indexed);
+                if (ids != null) {
+                    matches.addAll(ids);
+                }
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Orders matches from {@link #search} like the feed ({@code dateCreated DESC, id DESC}, ids compared as the
+     * unsigned bytes MySQL stores) and drops those the cursor has already passed, so the caller can fetch a page by
+     * sending only its first candidates. A match whose date is unknown goes last; the database still applies the
+     * cursor and the order to every batch it is sent.
+     */
+    public List<UUID> inFeedOrder(Collection<UUID> matches, LocalDateTime cursorDate, UUID cursorId) {
+        // dates are read once, so a post indexed concurrently cannot change the order halfway through the sort
+        return matches.stream()
+                .map(id -> new Dated(id, dateCreatedByPost.getOrDefault(id, LocalDateTime.MIN)))
+                .filter(dated -> cursorDate == null || dated.isAfter(cursorDate, cursorId))
+                .sorted(Comparator.reverseOrder())
+                .map(Dated::id)
+                .toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void unlink(String token, UUID postId) {
+        postings.computeIfPresent(token, (t, ids) -> {
+            ids.remove(postId);
+            if (ids.isEmpty()) {
+                dictionary.remove(t);
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    private record Dated(UUID id, LocalDateTime dateCreated) implements Comparable<Dated> {
+
+        boolean isAfter(LocalDateTime cursorDate, UUID cursorId) {
+            if (dateCreated.equals(LocalDateTime.MIN)) {
+                return true;
+            }
+            int byDate = dateCreated.compareTo(cursorDate);
+            return byDate < 0 || byDate == 0 && cursorId != null && compareUnsigned(id, cursorId) < 0;
+        }
+
+        @Override
+        public int compareTo(Dated other) {
+            int byDate = dateCreated.compareTo(other.dateCreated);
+            return byDate != 0 ? byDate : compareUnsigned(id, other.id);
+        }
+
+        private static int compareUnsigned(UUID a, UUID b) {
+            int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,39 +1,74 @@
 package be.pxl.services.services;
 
-import be.pxl.services.client.ReviewClient;
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchItem;
+import be.pxl.services.domain.dtos.PostCursor;
+import be.pxl.services.domain.dtos.PostMapper;
+import be.pxl.services.domain.dtos.PostSummary;
 import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
+import be.pxl.services.messaging.Outbox;
+import be.pxl.services.messaging.PostStatusChangedEvent;
+import be.pxl.services.messaging.PostSubmittedEvent;
 import be.pxl.services.repository.PostRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import static be.pxl.services.messaging.MessagingNames.POST_EXCHANGE;
+import static be.pxl.services.messaging.MessagingNames.POST_STATUS_RK;
+import static be.pxl.services.messaging.MessagingNames.POST_SUBMITTED_RK;
+import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
 public class PostService implements IPostService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    // upper bound on the ids sent in one IN list when the metadata filters keep rejecting candidates
+    static final int MAX_CANDIDATE_BATCH = 1000;
+
     private final PostRepository postRepository;
-    private final ReviewClient reviewClient;
+    private final Outbox outbox;
+    private final PostContentIndex contentIndex;
+    private final PublishedPostCache cache;
 
     private final Logger log = LoggerFactory.getLogger(PostService.class);
 
-    public PostService(PostRepository postRepository, ReviewClient reviewClient) {
+    public PostService(PostRepository postRepository, Outbox outbox, PostContentIndex contentIndex,
+                       PublishedPostCache cache) {
         this.postRepository = postRepository;
-        this.reviewClient = reviewClient;
+        this.outbox = outbox;
+        this.contentIndex = contentIndex;
+        this.cache = cache;
     }
 
     @Override
+    @Transactional
     public Post addPost(Post post, String user) {
         post.setAuthor(user);
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        publishStatus(saved);
+        return saved;
     }
 
     @Override
@@ -52,38 +87,113 @@ public class PostService implements IPostService {
             throw new IllegalStateException("Cannot edit a post that is already published.");
         }
 
+        PostStatus previousStatus = post.getStatus();
         post.setTitle(request.getTitle());
         post.setContent(request.getContent());
         post.setDateUpdated(LocalDateTime.now());
 
         log.info("Updating post {} with new title '{}'", postId, request.getTitle());
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        contentIndex.update(saved);
+        cache.evict(postId, previousStatus, saved.getStatus());
+        return saved;
+    }
+
+    @Override
+    public PageResponse<Post> findPublishedPosts(String contentFilter, String authorFilter, LocalDate dateFrom, LocalDate dateTo,
+                                                 String cursor, int limit) {
+        var key = new PublishedPostCache.FeedKey("full", contentFilter, authorFilter, dateFrom, dateTo, cursor, limit);
+        return cache.getFeed(key, () -> findPublished(contentFilter, authorFilter, dateFrom, dateTo, cursor, limit,
+                postRepository::findByStatusAndFilters,
+                postRepository::findByIdInAndStatusAndFilters,
+                PostCursor::of));
     }
 
     @Override
-    public List<Post> findPublishedPosts(String contentFilter, String authorFilter, LocalDate dateFrom, LocalDate dateTo) {
+    public PageResponse<PostSummary> findPublishedSummaries(String contentFilter, String authorFilter, LocalDate dateFrom, LocalDate dateTo,
+                                                            String cursor, int limit) {
+        var key = new PublishedPostCache.FeedKey("summary", contentFilter, authorFilter, dateFrom, dateTo, cursor, limit);
+        return cache.getFeed(key, () -> findPublished(contentFilter, authorFilter, dateFrom, dateTo, cursor, limit,
+                postRepository::findSummariesByStatusAndFilters,
+                postRepository::findSummariesByIdInAndStatusAndFilters,
+                PostCursor::of));
+    }
+
+    private <T> PageResponse<T> findPublished(String contentFilter, String authorFilter, LocalDate dateFrom, LocalDate dateTo,
+                                              String cursor, int limit,
+                                              FilteredQuery<T> filteredQuery,
+                                              CandidateQuery<T> candidateQuery,
+                                              Function<T, PostCursor> cursorOf) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        PostCursor after = PostCursor.decode(cursor);
+        LocalDateTime cursorDate = after != null ? after.dateCreated() : null;
+        UUID cursorId = after != null ? after.id() : null;
         LocalDateTime from = dateFrom != null ? dateFrom.atStartOfDay() : null;
         LocalDateTime to = dateTo != null ? dateTo.atStartOfDay() : null;
-        return postRepository.findByStatusAndFilters(
-                PostStatus.PUBLISHED,
-                contentFilter,
-                authorFilter,
-                from,
-                to
-        );
+
+        List<T> rows;
+        Optional<Set<UUID>> matches = contentFilter != null ? contentIndex.search(contentFilter) : Optional.empty();
+        if (matches.isPresent()) {
+            rows = findCandidates(contentIndex.inFeedOrder(matches.get(), cursorDate, cursorId), pageSize + 1,
+                    (batch, remaining) -> candidateQuery.find(
+                            batch,
+                            PostStatus.PUBLISHED,
+                            authorFilter,
+                            from,
+                            to,
+                            cursorDate,
+                            cursorId,
+                            Limit.of(remaining)
+                    ));
+        } else {
+            rows = filteredQuery.find(
+                    PostStatus.PUBLISHED,
+                    contentFilter,
+                    authorFilter,
+                    from,
+                    to,
+                    cursorDate,
+                    cursorId,
+                    Limit.of(pageSize + 1)
+            );
+        }
+        return PageResponse.of(rows, pageSize, row -> cursorOf.apply(row).encode());
+    }
+
+    /**
+     * Walks the index matches in feed order and sends them to the database a batch at a time until a page is
+     * filled, instead of one IN list holding every match. The first batch is exactly one page; when the author or
+     * date filters reject candidates the next batches double in size, up to {@link #MAX_CANDIDATE_BATCH}.
+     */
+    private static <T> List<T> findCandidates(List<UUID> candidates, int wanted,
+                                              BiFunction<List<UUID>, Integer, List<T>> query) {
+        List<T> rows = new ArrayList<>();
+        int start = 0;
+        int batchSize = wanted;
+        while (start < candidates.size() && rows.size() < wanted) {
+            int end = Math.min(start + batchSize, candidates.size());
+            rows.addAll(query.apply(candidates.subList(start, end), wanted - rows.size()));
+            start = end;
+            batchSize = Math.min(batchSize * 2, Math.max(wanted, MAX_CANDIDATE_BATCH));
+        }
+        return rows;
     }
 
     @Override
     public Post getPostById(UUID postId, String user) {
+        Optional<Post> cached = cache.getPost(postId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
+        cache.putPost(post);
 
-        boolean isPublished = post.getStatus() == PostStatus.PUBLISHED;
-        boolean isAuthor = user != null && user.equalsIgnoreCase(post.getAuthor());
-        boolean isInternal = user != null && user.equalsIgnoreCase("internal");
-
-        if (!isPublished && !(isAuthor || isInternal)) {
+        if (!isVisibleTo(post.getStatus(), post.getAuthor(), user)) {
             log.warn("Access denied for user '{}'", user);
             throw new IllegalStateException("You are not allowed to view this post.");
         }
@@ -91,6 +201,36 @@ public class PostService implements IPostService {
         return post;
     }
 
+    @Override
+    public List<PostBatchItem> getPostsByIds(List<UUID> postIds, Set<String> fields, String user) {
+        Set<String> mask = fields == null || fields.isEmpty() ? PostBatchItem.DEFAULT_FIELDS : fields;
+        for (String field : mask) {
+            if (!PostBatchItem.FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown field: " + field);
+            }
+        }
+        Set<UUID> ids = new LinkedHashSet<>(postIds);
+
+        // the summary projection leaves the content Lob alone unless the caller asked for it
+        Map<UUID, PostBatchItem> found = mask.contains("content")
+                ? postRepository.findAllById(ids).stream()
+                        .filter(post -> isVisibleTo(post.getStatus(), post.getAuthor(), user))
+                        .collect(Collectors.toMap(Post::getId, post -> PostMapper.toBatchItem(post, mask)))
+                : postRepository.findSummariesByIdIn(ids).stream()
+                        .filter(summary -> isVisibleTo(summary.status(), summary.author(), user))
+                        .collect(Collectors.toMap(PostSummary::id, summary -> PostMapper.toBatchItem(summary, mask)));
+
+        // missing or hidden posts are left out; the rest keep the order of the request
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private static boolean isVisibleTo(PostStatus status, String author, String user) {
+        boolean isPublished = status == PostStatus.PUBLISHED;
+        boolean isAuthor = user != null && user.equalsIgnoreCase(author);
+        boolean isInternal = user != null && user.equalsIgnoreCase("internal");
+        return isPublished || isAuthor || isInternal;
+    }
+
     @Override
     @Transactional
     public Post submitForReview(UUID id, String user) {
@@ -103,12 +243,15 @@ public class PostService implements IPostService {
             throw new BadRequestException("Only DRAFT posts can be submitted");
         }
 
-        // mark as pending_review, then call review-service
+        // mark as pending_review; the outbox row commits with it and is relayed to review-service
         post.setStatus(PostStatus.PENDING_REVIEW);
         post.setDateUpdated(LocalDateTime.now());
         Post saved = postRepository.save(post);
+        contentIndex.update(saved);
+        cache.evict(id, PostStatus.DRAFT, saved.getStatus());
 
-        reviewClient.submit(new ReviewClient.SubmitReviewRequest(saved.getId(), saved.getAuthor(), saved.getTitle()));
+        outbox.enqueue(REVIEW_EXCHANGE, POST_SUBMITTED_RK, new PostSubmittedEvent(saved.getId(), saved.getAuthor(), saved.getTitle()));
+        publishStatus(saved);
         log.info("Post {} submitted for review by {}", id, user);
         return saved;
     }
@@ -118,8 +261,29 @@ public class PostService implements IPostService {
     public void updatePostStatus(UUID postId, PostStatus newStatus) {
         Post post = postRepository.findById(postId).orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
 
+        PostStatus previousStatus = post.getStatus();
         post.setStatus(newStatus);
         post.setDateUpdated(LocalDateTime.now());
         postRepository.save(post);
+        contentIndex.update(post);
+        cache.evict(postId, previousStatus, newStatus);
+        publishStatus(post);
+    }
+
+    // lets other services keep their own view of which posts exist and in which state
+    private void publishStatus(Post post) {
+        outbox.enqueue(POST_EXCHANGE, POST_STATUS_RK, new PostStatusChangedEvent(post.getId(), post.getStatus()));
+    }
+
+    @FunctionalInterface
+    private interface FilteredQuery<T> {
+        List<T> find(PostStatus status, String contentFilter, String authorFilter, LocalDateTime from, LocalDateTime to,
+                     LocalDateTime cursorDate, UUID cursorId, Limit limit);
+    }
+
+    @FunctionalInterface
+    private interface CandidateQuery<T> {
+        List<T> find(Collection<UUID> ids, PostStatus status, String authorFilter, LocalDateTime from, LocalDateTime to,
+                     LocalDateTime cursorDate, UUID cursorId, Limit limit);
     }
 }
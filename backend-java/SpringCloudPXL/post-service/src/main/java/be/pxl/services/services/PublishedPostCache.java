@@ -0,0 +1,124 @@
+package be.pxl.services.services;
+
+import be.pxl.services.domain.Post;
+import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read cache for published posts and feed pages.
+ * <p>
+ * Entries are evicted explicitly when this instance changes a post, once the change commits. Other
+ * replicas only see the change once the entry expires, which is why the feed TTL is kept short. Hit, miss and eviction
+ * counts are published as {@code cache.*} metrics tagged {@code cache=posts.published|posts.feeds}.
+ */
+@Component
+public class PublishedPostCache {
+
+    private final Cache<UUID, Post> posts;
+    private final Cache<FeedKey, PageResponse<?>> feeds;
+
+    public PublishedPostCache(MeterRegistry meterRegistry,
+                              @Value("${posts.cache.posts.max-size:10000}") long postsMaxSize,
+                              @Value("${posts.cache.posts.ttl:PT10M}") Duration postsTtl,
+                              @Value("${posts.cache.feeds.max-size:1000}") long feedsMaxSize,
+                              @Value("${posts.cache.feeds.ttl:PT30S}") Duration feedsTtl) {
+        this.posts = Caffeine.newBuilder()
+                .maximumSize(postsMaxSize)
+                .expireAfterWrite(postsTtl)
+                .recordStats()
+                .build();
+        this.feeds = Caffeine.newBuilder()
+                .maximumSize(feedsMaxSize)
+                .expireAfterWrite(feedsTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, posts, "posts.published");
+        CaffeineCacheMetrics.monitor(meterRegistry, feeds, "posts.feeds");
+    }
+
+    public Optional<Post> getPost(UUID postId) {
+        return Optional.ofNullable(posts.getIfPresent(postId));
+    }
+
+    /**
+     * Caches the post if it is published; anything else is only visible to its author or internal
+     * callers and always goes to the database.
+     */
+    public void putPost(Post post) {
+        if (post.getStatus() == PostStatus.PUBLISHED) {
+            posts.put(post.getId(), post);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> PageResponse<T> getFeed(FeedKey key, Supplier<PageResponse<T>> loader) {
+        return (PageResponse<T>) feeds.get(key, k -> loader.get());
+    }
+
+    /**
+     * Drops the cached copy of a post. Feed pages are only dropped when the post enters or leaves the
+     * published set, because that is the only way a change can show up in a feed.
+     */
+    public void evict(UUID postId, PostStatus previousStatus, PostStatus newStatus) {
+        afterCommit(() -> {
+            posts.invalidate(postId);
+            if (previousStatus == PostStatus.PUBLISHED || newStatus == PostStatus.PUBLISHED) {
+                feeds.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Drops the cached copies of several posts whose previous status is unknown (bulk updates), and
+     * with them all feed pages.
+     */
+    public void evictAll(Collection<UUID> postIds) {
+        afterCommit(() -> {
+            posts.invalidateAll(postIds);
+            feeds.invalidateAll();
+        });
+    }
+
+    /**
+     * Inside a transaction an eviction waits for the commit: a read racing the transaction would otherwise load the
+     * old row and put it straight back, where it would stay until it expires.
+     */
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    public record FeedKey(
+            String view,
+            String content,
+            String author,
+            LocalDate from,
+            LocalDate to,
+            String cursor,
+            int limit
+    ) {
+    }
+}
@@ -0,0 +1,11 @@
+-- One-off conversion for schemas created before UUID columns were stored as BINARY(16),
+-- i.e. CHAR(36) text or the BINARY(255) that Hibernate 5 generated. Fresh schemas already use BINARY(16);
+-- do not run it there. Stop the service first: the primary key is rebuilt, which also compacts the index.
+
+ALTER TABLE post ADD COLUMN id_bin BINARY(16);
+UPDATE post SET id_bin = IF(LENGTH(id) = 36, UUID_TO_BIN(id), SUBSTRING(id, 1, 16));
+ALTER TABLE post
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (id);
@@ -0,0 +1,13 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and never run it.
+CREATE TABLE IF NOT EXISTS post
+(
+    id           BINARY(16)   NOT NULL,
+    title        VARCHAR(255),
+    content      LONGTEXT,
+    author       VARCHAR(255),
+    date_created DATETIME(6),
+    date_updated DATETIME(6),
+    status       ENUM ('DRAFT','PENDING_REVIEW','APPROVED','REJECTED','PUBLISHED'),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
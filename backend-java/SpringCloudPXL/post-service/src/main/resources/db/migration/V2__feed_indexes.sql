@@ -0,0 +1,2 @@
+-- Published feed: equality on status, keyset on (date_created, id) in descending order.
+CREATE INDEX idx_post_status_created ON post (status, date_created, id);
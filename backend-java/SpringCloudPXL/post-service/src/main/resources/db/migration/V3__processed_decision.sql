@@ -0,0 +1,9 @@
+-- Newest review decision applied per post, used to drop redelivered and out-of-order decisions.
+CREATE TABLE processed_decision
+(
+    post_id      BINARY(16) NOT NULL,
+    event_id     BINARY(16) NOT NULL,
+    sequence_no  BIGINT     NOT NULL,
+    processed_at DATETIME(6),
+    PRIMARY KEY (post_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,3 @@
+-- Stored excerpt for the summary view; rows written before it existed fall back to a prefix of the content.
+ALTER TABLE post
+    ADD COLUMN excerpt VARCHAR(201);
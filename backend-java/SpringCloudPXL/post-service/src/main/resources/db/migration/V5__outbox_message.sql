@@ -0,0 +1,11 @@
+-- Transactional outbox: events committed together with the post row, relayed to the broker afterwards.
+CREATE TABLE outbox_message
+(
+    id          BINARY(16) NOT NULL,
+    exchange    VARCHAR(255),
+    routing_key VARCHAR(255),
+    payload     LONGTEXT,
+    created_at  DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_created (created_at)
+) ENGINE = InnoDB;
@@ -2,7 +2,11 @@ package be.pxl.services.controller;
 
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchItem;
+import be.pxl.services.domain.dtos.PostBatchRequest;
 import be.pxl.services.domain.dtos.PostRequest;
+import be.pxl.services.domain.dtos.PostSummary;
 import be.pxl.services.services.IPostService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -15,11 +19,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -95,21 +102,48 @@ class PostControllerTest {
         Post p2 = buildPost(UUID.randomUUID(), "bob", PostStatus.PUBLISHED);
 
         when(postService.findPublishedPosts(eq("java"), eq("alice"),
-                any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(List.of(p1, p2));
+                any(LocalDate.class), any(LocalDate.class), eq("abc"), eq(2)))
+                .thenReturn(new PageResponse<>(List.of(p1, p2), "next-cursor"));
 
         mockMvc.perform(get("/api/posts")
                         .param("content", "java")
                         .param("author", "alice")
                         .param("from", "2024-01-01")
-                        .param("to", "2024-01-31"))
+                        .param("to", "2024-01-31")
+                        .param("cursor", "abc")
+                        .param("limit", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value(p1.getId().toString()))
-                .andExpect(jsonPath("$[1].id").value(p2.getId().toString()));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(p1.getId().toString()))
+                .andExpect(jsonPath("$.items[1].id").value(p2.getId().toString()))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
 
         verify(postService).findPublishedPosts(eq("java"), eq("alice"),
-                any(LocalDate.class), any(LocalDate.class));
+                any(LocalDate.class), any(LocalDate.class), eq("abc"), eq(2));
+    }
+
+    @Test
+    void getPublishedPosts_summaryView_returnsExcerptsWithoutContent() throws Exception {
+        UUID id = UUID.randomUUID();
+        PostSummary summary = new PostSummary(id, "title", "short excerpt", "alice",
+                PostStatus.PUBLISHED, LocalDateTime.now(), null);
+
+        when(postService.findPublishedSummaries(any(), any(), any(), any(), any(), eq(20)))
+                .thenReturn(new PageResponse<>(List.of(summary), null));
+
+        mockMvc.perform(get("/api/posts").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[0].excerpt").value("short excerpt"))
+                .andExpect(jsonPath("$.items[0].content").doesNotExist());
+
+        verify(postService, never()).findPublishedPosts(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getPublishedPosts_unknownView_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/posts").param("view", "everything"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -128,6 +162,35 @@ class PostControllerTest {
         verify(postService).getPostById(id, "bob");
     }
 
+    @Test
+    void getPostsByIds_returnsMaskedItems() throws Exception {
+        UUID id = UUID.randomUUID();
+        PostBatchRequest req = new PostBatchRequest(List.of(id), Set.of("title"));
+        when(postService.getPostsByIds(List.of(id), Set.of("title"), "internal")).thenReturn(List.of(
+                new PostBatchItem(id, PostStatus.PUBLISHED, "title", null, null, null, null, null)));
+
+        mockMvc.perform(post("/api/posts/batch")
+                        .header("user", "internal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status").value("PUBLISHED"))
+                .andExpect(jsonPath("$[0].title").value("title"))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    void getPostsByIds_emptyIds_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/posts/batch")
+                        .header("user", "internal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PostBatchRequest(List.of(), null))))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, never()).getPostsByIds(any(), any(), any());
+    }
+
     @Test
     void updatePostStatus_ok() throws Exception {
         UUID id = UUID.randomUUID();
@@ -30,6 +30,5 @@ public abstract class AbstractMySqlIT {
         registry.add("spring.datasource.url",      MYSQL_CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.username", MYSQL_CONTAINER::getUsername);
         registry.add("spring.datasource.password", MYSQL_CONTAINER::getPassword);
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
     }
 }
@@ -97,7 +97,8 @@ class PostControllerIT extends AbstractMySqlIT {
 
         mockMvc.perform(get("/api/posts"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].title").value("Published"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Published"))
+                .andExpect(jsonPath("$.next").doesNotExist());
     }
 }
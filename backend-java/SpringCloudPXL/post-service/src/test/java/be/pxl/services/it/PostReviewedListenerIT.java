@@ -17,6 +17,7 @@ import org.testcontainers.utility.DockerImageName;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import static be.pxl.services.messaging.MessagingNames.POST_ID_HEADER;
 import static be.pxl.services.messaging.MessagingNames.POST_REVIEWED_RK;
 import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,7 +26,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class PostReviewedListenerIT {
 
     private static final RabbitMQContainer rabbit =
-            new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.13-management"));
+            new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.13-management"))
+                    .withPluginsEnabled("rabbitmq_consistent_hash_exchange");
 
     static {
         rabbit.start();
@@ -58,8 +60,11 @@ class PostReviewedListenerIT {
         UUID postId = post.getId();
 
         // Act: send APPROVED event via RabbitMQ
-        PostReviewedEvent evt = new PostReviewedEvent(postId, "APPROVED");
-        rabbitTemplate.convertAndSend(REVIEW_EXCHANGE, POST_REVIEWED_RK, evt);
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), postId, "APPROVED", 1);
+        rabbitTemplate.convertAndSend(REVIEW_EXCHANGE, POST_REVIEWED_RK, evt, message -> {
+            message.getMessageProperties().setHeader(POST_ID_HEADER, postId.toString());
+            return message;
+        });
 
         // Slep a bit for listener to process
         Thread.sleep(500);
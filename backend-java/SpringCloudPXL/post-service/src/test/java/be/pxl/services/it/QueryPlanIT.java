@@ -0,0 +1,126 @@
+package be.pxl.services.it;
+
+import be.pxl.services.domain.PostStatus;
+import be.pxl.services.repository.PostRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against MySQL, calls the hot repository queries and checks with EXPLAIN that the SQL
+ * Hibernate generated for them uses their index.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class QueryPlanIT {
+
+    private static final String[] STATUSES = {"DRAFT", "PENDING_REVIEW", "REJECTED", "PUBLISHED"};
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.3.0")
+            .withDatabaseName("blogdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    // only the JPA slice: the application class would also bring in discovery and scheduling
+    @SpringBootConfiguration
+    @EntityScan("be.pxl.services.domain")
+    @EnableJpaRepositories("be.pxl.services.repository")
+    @Import(StatementCapture.class)
+    static class JpaSlice {
+    }
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private StatementCapture statements;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()).load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO post (id, title, content, author, date_created, status) VALUES (?, ?, ?, ?, ?, ?)")) {
+            LocalDateTime start = LocalDateTime.now().minusDays(30);
+            for (int i = 0; i < 2000; i++) {
+                insert.setBytes(1, bytes(UUID.randomUUID()));
+                insert.setString(2, "title " + i);
+                insert.setString(3, "content " + i);
+                insert.setString(4, "author" + (i % 50));
+                insert.setTimestamp(5, Timestamp.valueOf(start.plusMinutes(i)));
+                insert.setString(6, STATUSES[i % STATUSES.length]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.createStatement().execute("ANALYZE TABLE post");
+        }
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void publishedFeed_usesStatusCreatedIndex() throws SQLException {
+        LocalDateTime cursorDate = LocalDateTime.now().minusDays(10);
+        postRepository.findByStatusAndFilters(PostStatus.PUBLISHED, null, null, null, null,
+                cursorDate, UUID.randomUUID(), Limit.of(21));
+
+        assertThat(statements.explainKey(statements.last("from post"))).isEqualTo("idx_post_status_created");
+    }
+
+    @Test
+    void publishedFeedFirstPage_usesStatusCreatedIndex() throws SQLException {
+        postRepository.findByStatusAndFilters(PostStatus.PUBLISHED, null, null, null, null, null, null, Limit.of(21));
+
+        assertThat(statements.explainKey(statements.last("from post"))).isEqualTo("idx_post_status_created");
+    }
+
+    @Test
+    void publishedSummaries_useStatusCreatedIndex() throws SQLException {
+        postRepository.findSummariesByStatusAndFilters(PostStatus.PUBLISHED, null, null, null, null,
+                null, null, Limit.of(21));
+
+        assertThat(statements.explainKey(statements.last("from post"))).isEqualTo("idx_post_status_created");
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
@@ -0,0 +1,79 @@
+package be.pxl.services.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.COMPACT_DECISION_CONTENT_TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactDecisionMessageConverterTest {
+
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+    private final CompactDecisionMessageConverter compact = new CompactDecisionMessageConverter(json, true);
+
+    @Test
+    void roundTrip_keepsEveryField() {
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "REJECTED", 300_000L);
+
+        Message message = compact.toMessage(evt, new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(COMPACT_DECISION_CONTENT_TYPE);
+        assertThat(message.getBody()).hasSize(2 + 16 + 16 + 1 + 3);
+        assertThat(compact.fromMessage(message)).isEqualTo(evt);
+    }
+
+    @Test
+    void roundTrip_legacyEventWithoutIdAndUnknownDecision() {
+        PostReviewedEvent evt = new PostReviewedEvent(null, UUID.randomUUID(), "ESCALATED", 0);
+
+        Message message = compact.toMessage(evt, new MessageProperties());
+
+        assertThat(compact.fromMessage(message)).isEqualTo(evt);
+    }
+
+    @Test
+    void roundTrip_negativeSequenceUsesFullVarLong() {
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", -1);
+
+        assertThat(CompactDecisionMessageConverter.decode(CompactDecisionMessageConverter.encode(evt))).isEqualTo(evt);
+    }
+
+    @Test
+    void fromMessage_jsonStillDecodedByFallback() {
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 3);
+        Message message = json.toMessage(evt, new MessageProperties());
+
+        assertThat(compact.fromMessage(message)).isEqualTo(evt);
+    }
+
+    @Test
+    void toMessage_encodesJsonWhenCompactEncodingIsOff() {
+        var converter = new CompactDecisionMessageConverter(json, false);
+
+        Message message = converter.toMessage(
+                new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 3), new MessageProperties());
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    void decode_rejectsTruncatedAndUnknownVersions() {
+        byte[] body = CompactDecisionMessageConverter.encode(
+                new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 3));
+
+        assertThatThrownBy(() -> CompactDecisionMessageConverter.decode(Arrays.copyOf(body, 20)))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("Truncated");
+        body[0] = 2;
+        assertThatThrownBy(() -> CompactDecisionMessageConverter.decode(body))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("version 2");
+    }
+}
@@ -0,0 +1,62 @@
+package be.pxl.services.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+
+import java.util.List;
+
+import static be.pxl.services.messaging.MessagingNames.DECISIONS_QUEUE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+class DecisionPartitionListenersTest {
+
+    private final PostReviewedListener listener = mock(PostReviewedListener.class);
+    private final SimpleRabbitListenerContainerFactory factory = new RabbitConfig().decisionsContainerFactory(
+            mock(SimpleRabbitListenerContainerFactoryConfigurer.class), mock(ConnectionFactory.class),
+            mock(MessageConverter.class), mock(DecisionRetryRecoverer.class), 50, 200);
+
+    @Test
+    void endpoints_oneBatchListenerPerPartitionQueue() {
+        var partitionListeners = new DecisionPartitionListeners(listener, factory, 3);
+
+        List<MethodRabbitListenerEndpoint> endpoints = partitionListeners.endpoints();
+
+        assertThat(endpoints).extracting(MethodRabbitListenerEndpoint::getId)
+                .containsExactly("decisions-partition-0", "decisions-partition-1", "decisions-partition-2");
+        assertThat(endpoints).extracting(e -> e.getQueueNames().iterator().next())
+                .containsExactly(DECISIONS_QUEUE + ".0", DECISIONS_QUEUE + ".1", DECISIONS_QUEUE + ".2");
+        assertThat(endpoints).allSatisfy(e -> {
+            assertThat(e.getBean()).isSameAs(listener);
+            assertThat(e.getMethod().getName()).isEqualTo("onReviewed");
+        });
+    }
+
+    @Test
+    void endpoints_createBatchContainersOnTheirPartitionQueue() {
+        var partitionListeners = new DecisionPartitionListeners(listener, factory, 2);
+
+        SimpleMessageListenerContainer container =
+                factory.createListenerContainer(partitionListeners.endpoints().get(1));
+
+        assertThat(container.getQueueNames()).containsExactly(DECISIONS_QUEUE + ".1");
+        assertThat(container.isConsumerBatchEnabled()).isTrue();
+    }
+
+    @Test
+    void configureRabbitListeners_registersEveryPartitionWithDecisionsFactory() {
+        var registrar = mock(RabbitListenerEndpointRegistrar.class);
+
+        new DecisionPartitionListeners(listener, factory, 4).configureRabbitListeners(registrar);
+
+        verify(registrar, times(4)).registerEndpoint(any(MethodRabbitListenerEndpoint.class), same(factory));
+    }
+}
@@ -0,0 +1,72 @@
+package be.pxl.services.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DecisionRetryRecovererTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private DecisionRetryRecoverer recoverer;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        recoverer = new DecisionRetryRecoverer(rabbitTemplate, 3);
+    }
+
+    private static Message message(Integer attempt) {
+        return message(attempt, "{}");
+    }
+
+    private static Message message(Integer attempt, String body) {
+        MessageProperties properties = new MessageProperties();
+        if (attempt != null) {
+            properties.setHeader(RETRY_ATTEMPT_HEADER, attempt);
+        }
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    @Test
+    void recover_firstFailure_sendsWholeBatchToFirstTier() {
+        Message first = message(null, "{\"n\":1}");
+        Message second = message(null, "{\"n\":2}");
+
+        recoverer.recover(List.of(first, second), new IllegalStateException("db down"));
+
+        verify(rabbitTemplate).send(DECISIONS_DLX, "retry.1", first);
+        verify(rabbitTemplate).send(DECISIONS_DLX, "retry.1", second);
+        assertThat(DecisionRetryRecoverer.attemptOf(first)).isEqualTo(1);
+        assertThat((String) first.getMessageProperties().getHeader(FAILURE_HEADER)).contains("db down");
+    }
+
+    @Test
+    void recover_laterFailure_movesToNextTier() {
+        Message message = message(2);
+
+        recoverer.recover(message, new RuntimeException(new IllegalArgumentException("bad id")));
+
+        verify(rabbitTemplate).send(DECISIONS_DLX, "retry.3", message);
+        assertThat((String) message.getMessageProperties().getHeader(FAILURE_HEADER))
+                .isEqualTo("IllegalArgumentException: bad id");
+    }
+
+    @Test
+    void recover_afterLastTier_parksMessage() {
+        Message message = message(3);
+
+        recoverer.recover(message, new RuntimeException("still failing"));
+
+        verify(rabbitTemplate).send(DECISIONS_DLX, PARKING_LOT_RK, message);
+        assertThat(DecisionRetryRecoverer.attemptOf(message)).isEqualTo(4);
+    }
+}
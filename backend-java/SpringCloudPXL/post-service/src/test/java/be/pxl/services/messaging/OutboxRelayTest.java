@@ -0,0 +1,125 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.OutboxMessage;
+import be.pxl.services.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.POST_SUBMITTED_RK;
+import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxRepository outboxRepository;
+    private RabbitTemplate rabbitTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(inv ->
+                inv.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+        relay = new OutboxRelay(outboxRepository, rabbitTemplate, TransactionOperations.withoutTransaction(), 2, 1000);
+    }
+
+    private OutboxMessage message(String payload) {
+        OutboxMessage m = new OutboxMessage(REVIEW_EXCHANGE, POST_SUBMITTED_RK, payload);
+        m.setId(UUID.randomUUID());
+        return m;
+    }
+
+    @Test
+    void relay_emptyOutbox_publishesNothing() {
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(rabbitTemplate);
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void relay_publishesBatchWaitsForConfirmsAndDeletes() {
+        OutboxMessage first = message("{\"n\":1}");
+        when(outboxRepository.lockOldest(2)).thenReturn(List.of(first));
+
+        relay.relay();
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq(REVIEW_EXCHANGE), eq(POST_SUBMITTED_RK), sent.capture());
+        verify(rabbitTemplate).waitForConfirmsOrDie(1000);
+        verify(outboxRepository).deleteAllInBatch(List.of(first));
+
+        Message message = sent.getValue();
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"n\":1}");
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(message.getMessageProperties().getMessageId()).isEqualTo(first.getId().toString());
+    }
+
+    @Test
+    void relay_claimsSendsAndDeletesEachBatchInOneTransaction() {
+        List<String> calls = new ArrayList<>();
+        relay = new OutboxRelay(outboxRepository, rabbitTemplate, new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                calls.add("begin");
+                T result = action.doInTransaction(new SimpleTransactionStatus());
+                calls.add("commit");
+                return result;
+            }
+        }, 2, 1000);
+        OutboxMessage first = message("1");
+        when(outboxRepository.lockOldest(2)).thenAnswer(inv -> {
+            calls.add("lock");
+            return List.of(first);
+        });
+        doAnswer(inv -> calls.add("delete")).when(outboxRepository).deleteAllInBatch(List.of(first));
+
+        relay.relay();
+
+        assertThat(calls).containsExactly("begin", "lock", "delete", "commit");
+    }
+
+    @Test
+    void relay_fullBatch_keepsDrainingUntilShortBatch() {
+        when(outboxRepository.lockOldest(2))
+                .thenReturn(List.of(message("1"), message("2")))
+                .thenReturn(List.of(message("3")));
+
+        relay.relay();
+
+        verify(rabbitTemplate, times(3)).send(any(), any(), any(Message.class));
+        verify(outboxRepository, times(2)).deleteAllInBatch(any());
+    }
+
+    @Test
+    void relay_brokerFailure_keepsMessagesForNextRun() {
+        when(outboxRepository.lockOldest(anyInt())).thenReturn(List.of(message("1")));
+        doThrow(new AmqpIOException(new IOException("nack"))).when(rabbitTemplate).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+}
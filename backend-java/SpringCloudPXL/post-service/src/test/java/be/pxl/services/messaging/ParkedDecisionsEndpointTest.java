@@ -0,0 +1,107 @@
+package be.pxl.services.messaging;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ParkedDecisionsEndpointTest {
+
+    private Channel channel;
+    private ParkedDecisionsEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        channel = mock(Channel.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.execute(any())).thenAnswer(inv ->
+                inv.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+        endpoint = new ParkedDecisionsEndpoint(rabbitTemplate, 1000);
+    }
+
+    private static GetResponse parked(long tag, String body) {
+        return parked(tag, body, Map.of(RETRY_ATTEMPT_HEADER, 4, FAILURE_HEADER, "boom", POST_ID_HEADER, "p" + tag));
+    }
+
+    private static GetResponse parked(long tag, String body, Map<String, Object> headers) {
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder()
+                .messageId("m" + tag)
+                .headers(headers)
+                .build();
+        return new GetResponse(new Envelope(tag, false, DECISIONS_DLX, PARKING_LOT_RK), props,
+                body.getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    @Test
+    void inspect_returnsParkedMessagesAndPutsThemBack() throws Exception {
+        when(channel.basicGet(DECISIONS_PARKING_LOT, false)).thenReturn(parked(1, "{\"a\":1}"), parked(2, "{\"a\":2}"), null);
+
+        List<ParkedDecision> parked = endpoint.inspect(null);
+
+        assertThat(parked).containsExactly(
+                new ParkedDecision("m1", 4, "boom", "{\"a\":1}"),
+                new ParkedDecision("m2", 4, "boom", "{\"a\":2}"));
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void inspect_showsCompactDecisionsDecoded() throws Exception {
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 7);
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder()
+                .messageId("m1")
+                .contentType(COMPACT_DECISION_CONTENT_TYPE)
+                .build();
+        when(channel.basicGet(DECISIONS_PARKING_LOT, false)).thenReturn(
+                new GetResponse(new Envelope(1, false, DECISIONS_DLX, PARKING_LOT_RK), props,
+                        CompactDecisionMessageConverter.encode(evt), 0),
+                (GetResponse) null);
+
+        List<ParkedDecision> parked = endpoint.inspect(null);
+
+        assertThat(parked).extracting(ParkedDecision::payload).containsExactly(evt.toString());
+    }
+
+    @Test
+    void replay_republishesWithFreshRetryBudgetAndAcksAfterConfirm() throws Exception {
+        when(channel.basicGet(DECISIONS_PARKING_LOT, false)).thenReturn(parked(1, "{}"), parked(2, "{}"), parked(3, "{}"));
+
+        Map<String, Integer> result = endpoint.replay(2);
+
+        assertThat(result).containsEntry("replayed", 2);
+        ArgumentCaptor<AMQP.BasicProperties> props = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel, times(2)).basicPublish(eq(DECISIONS_HASH_EXCHANGE), eq(""), props.capture(), any(byte[].class));
+        assertThat(props.getValue().getHeaders())
+                .doesNotContainKeys(RETRY_ATTEMPT_HEADER, FAILURE_HEADER)
+                .containsEntry(POST_ID_HEADER, "p2");
+        var inOrder = inOrder(channel);
+        inOrder.verify(channel).waitForConfirmsOrDie(1000);
+        inOrder.verify(channel).basicAck(2, true);
+    }
+
+    @Test
+    void replay_sendsDecisionsWithoutPostIdHeaderToFirstPartition() throws Exception {
+        when(channel.basicGet(DECISIONS_PARKING_LOT, false))
+                .thenReturn(parked(1, "{}", Map.of(RETRY_ATTEMPT_HEADER, 4)), (GetResponse) null);
+
+        endpoint.replay(null);
+
+        verify(channel).basicPublish(eq(""), eq(DECISIONS_QUEUE + ".0"), any(), any(byte[].class));
+        verify(channel).basicAck(1, true);
+    }
+}
@@ -1,19 +1,25 @@
 package be.pxl.services.messaging;
 
-import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.ProcessedDecision;
 import be.pxl.services.repository.PostRepository;
+import be.pxl.services.repository.ProcessedDecisionRepository;
+import be.pxl.services.services.PostContentIndex;
+import be.pxl.services.services.PublishedPostCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,78 +28,190 @@ class PostReviewedListenerTest {
     @Mock
     private PostRepository postRepository;
 
-    @InjectMocks
+    @Mock
+    private PostContentIndex contentIndex;
+
+    @Mock
+    private PublishedPostCache cache;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private ProcessedDecisionRepository processedDecisions;
+
     private PostReviewedListener listener;
 
+    @BeforeEach
+    void setUp() {
+        listener = new PostReviewedListener(postRepository, contentIndex, cache, outbox,
+                new DecisionDeduplicator(processedDecisions, 100));
+    }
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    // events as published before review-service sent ids and sequences
+    private static PostReviewedEvent legacy(UUID postId, String decision) {
+        return new PostReviewedEvent(null, postId, decision, 0);
+    }
+
+    private PostRepository.ContentView row(UUID id, String content) {
+        LocalDateTime dateCreated = CREATED;
+        return new PostRepository.ContentView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getDateCreated() {
+                return dateCreated;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+
     @Test
-    void onReviewed_approved_updatesPostToPublished() {
-        // Arrange
+    void onReviewed_approved_bulkUpdatesToPublishedAndIndexes() {
         UUID postId = UUID.randomUUID();
-        Post post = new Post();
-        post.setId(postId);
-        post.setStatus(PostStatus.PENDING_REVIEW);
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
+        when(postRepository.updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.PUBLISHED), any())).thenReturn(1);
+        when(postRepository.findContentByIdIn(List.of(postId))).thenReturn(List.of(row(postId, "hello world")));
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        listener.onReviewed(List.of(legacy(postId, "APPROVED")));
 
-        PostReviewedEvent event = new PostReviewedEvent(postId, "APPROVED");
+        verify(postRepository).updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.PUBLISHED), any());
+        verify(contentIndex).index(postId, CREATED, "hello world");
+        verify(cache).evictAll(Set.of(postId));
+        verify(outbox).enqueueAll(MessagingNames.POST_EXCHANGE, MessagingNames.POST_STATUS_RK,
+                List.of(new PostStatusChangedEvent(postId, PostStatus.PUBLISHED)));
+        verify(postRepository, never()).save(any());
+    }
 
-        // Act
-        listener.onReviewed(event);
+    @Test
+    void onReviewed_rejected_bulkUpdatesToRejectedAndRemovesFromIndex() {
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
+        when(postRepository.updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.REJECTED), any())).thenReturn(1);
 
-        // Assert
-        ArgumentCaptor<Post> captor = ArgumentCaptor.forClass(Post.class);
-        verify(postRepository).save(captor.capture());
+        listener.onReviewed(List.of(legacy(postId, "rejected")));
 
-        Post saved = captor.getValue();
-        assertThat(saved.getStatus()).isEqualTo(PostStatus.PUBLISHED);
-        assertThat(saved.getDateUpdated()).isNotNull();
+        verify(postRepository).updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.REJECTED), any());
+        verify(contentIndex).remove(postId);
+        verify(postRepository, never()).findContentByIdIn(anyCollection());
     }
 
     @Test
-    void onReviewed_rejected_updatesPostToRejected() {
+    void onReviewed_mixedBatch_issuesOneUpdatePerStatus() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(postRepository.findIdsByIdIn(Set.of(a, b, c))).thenReturn(List.of(a, b, c));
+        when(postRepository.updateStatusByIdIn(anyCollection(), any(), any())).thenReturn(1, 2);
+
+        listener.onReviewed(List.of(
+                legacy(a, "APPROVED"),
+                legacy(b, "REJECTED"),
+                legacy(c, "APPROVED")));
+
+        verify(postRepository).updateStatusByIdIn(eq(List.of(a, c)), eq(PostStatus.PUBLISHED), any());
+        verify(postRepository).updateStatusByIdIn(eq(List.of(b)), eq(PostStatus.REJECTED), any());
+        verify(postRepository, times(2)).updateStatusByIdIn(anyCollection(), any(), any());
+    }
+
+    @Test
+    void onReviewed_repeatedPost_lastDecisionWins() {
         UUID postId = UUID.randomUUID();
-        Post post = new Post();
-        post.setId(postId);
-        post.setStatus(PostStatus.PENDING_REVIEW);
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
+        when(postRepository.updateStatusByIdIn(anyCollection(), any(), any())).thenReturn(1);
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        listener.onReviewed(List.of(
+                legacy(postId, "APPROVED"),
+                legacy(postId, "REJECTED")));
 
-        PostReviewedEvent event = new PostReviewedEvent(postId, "REJECTED");
+        verify(postRepository).updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.REJECTED), any());
+        verify(postRepository, never()).updateStatusByIdIn(anyCollection(), eq(PostStatus.PUBLISHED), any());
+    }
 
-        listener.onReviewed(event);
+    @Test
+    void onReviewed_unknownPost_isDropped() {
+        UUID known = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(postRepository.findIdsByIdIn(Set.of(known, unknown))).thenReturn(List.of(known));
+        when(postRepository.updateStatusByIdIn(anyCollection(), any(), any())).thenReturn(1);
+
+        listener.onReviewed(List.of(
+                legacy(known, "REJECTED"),
+                legacy(unknown, "REJECTED")));
+
+        verify(postRepository).updateStatusByIdIn(eq(List.of(known)), eq(PostStatus.REJECTED), any());
+        verify(outbox).enqueueAll(MessagingNames.POST_EXCHANGE, MessagingNames.POST_STATUS_RK,
+                List.of(new PostStatusChangedEvent(known, PostStatus.REJECTED)));
+    }
 
-        ArgumentCaptor<Post> captor = ArgumentCaptor.forClass(Post.class);
-        verify(postRepository).save(captor.capture());
-        Post saved = captor.getValue();
+    @Test
+    void onReviewed_unknownDecision_doesNotUpdate() {
+        listener.onReviewed(List.of(legacy(UUID.randomUUID(), "SOMETHING_ELSE")));
 
-        assertThat(saved.getStatus()).isEqualTo(PostStatus.REJECTED);
+        verifyNoInteractions(postRepository, contentIndex, cache, outbox);
     }
 
     @Test
-    void onReviewed_unknownDecision_doesNotSave() {
+    void onRetried_appliesTheSingleDecision() {
         UUID postId = UUID.randomUUID();
-        Post post = new Post();
-        post.setId(postId);
-        post.setStatus(PostStatus.PENDING_REVIEW);
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
 
-        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        listener.onRetried(legacy(postId, "REJECTED"));
 
-        PostReviewedEvent event = new PostReviewedEvent(postId, "SOMETHING_ELSE");
-
-        listener.onReviewed(event);
+        verify(postRepository).updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.REJECTED), any());
+        verify(contentIndex).remove(postId);
+    }
 
-        verify(postRepository, never()).save(any());
+    @Test
+    void onReviewed_redeliveredDecision_isDroppedBeforeTouchingThePost() {
+        UUID postId = UUID.randomUUID();
+        PostReviewedEvent evt = new PostReviewedEvent(UUID.randomUUID(), postId, "APPROVED", 3);
+        when(processedDecisions.findAllById(List.of(postId))).thenReturn(List.of());
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
+        when(postRepository.findContentByIdIn(List.of(postId))).thenReturn(List.of());
+
+        listener.onReviewed(List.of(evt));
+        listener.onReviewed(List.of(evt));
+
+        verify(postRepository, times(1)).findIdsByIdIn(anyCollection());
+        verify(postRepository, times(1)).updateStatusByIdIn(anyCollection(), any(), any());
+        verify(processedDecisions).upsert(eq(postId), eq(evt.eventId()), eq(3L), any());
+        // the second delivery is answered from the in-memory window
+        verify(processedDecisions, times(1)).findAllById(anyIterable());
     }
 
     @Test
-    void onReviewed_postNotFound_logsAndDoesNothing() {
+    void onReviewed_olderDecisionThanStored_isDropped() {
         UUID postId = UUID.randomUUID();
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(processedDecisions.findAllById(List.of(postId)))
+                .thenReturn(List.of(new ProcessedDecision(postId, UUID.randomUUID(), 5)));
 
-        PostReviewedEvent event = new PostReviewedEvent(postId, "APPROVED");
+        listener.onReviewed(List.of(new PostReviewedEvent(UUID.randomUUID(), postId, "APPROVED", 4)));
 
-        listener.onReviewed(event);
+        verifyNoInteractions(postRepository, contentIndex, cache, outbox);
+    }
 
-        verify(postRepository, never()).save(any());
+    @Test
+    void onReviewed_outOfOrderWithinBatch_newestSequenceWins() {
+        UUID postId = UUID.randomUUID();
+        when(processedDecisions.findAllById(List.of(postId))).thenReturn(List.of());
+        when(postRepository.findIdsByIdIn(Set.of(postId))).thenReturn(List.of(postId));
+
+        listener.onReviewed(List.of(
+                new PostReviewedEvent(UUID.randomUUID(), postId, "REJECTED", 7),
+                new PostReviewedEvent(UUID.randomUUID(), postId, "APPROVED", 6)));
+
+        verify(postRepository).updateStatusByIdIn(eq(List.of(postId)), eq(PostStatus.REJECTED), any());
+        verify(postRepository, never()).updateStatusByIdIn(anyCollection(), eq(PostStatus.PUBLISHED), any());
+        verify(processedDecisions).upsert(eq(postId), any(), eq(7L), any());
     }
 }
@@ -3,9 +3,11 @@ package be.pxl.services.messaging;
 import org.junit.jupiter.api.Test;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 class RabbitConfigFactoryTest {
@@ -28,4 +30,35 @@ class RabbitConfigFactoryTest {
 
         verify(configurer).configure(factory, connectionFactory);
     }
+
+    @Test
+    void decisionsContainerFactory_consumesInBatches() {
+        RabbitConfig config = new RabbitConfig();
+        SimpleRabbitListenerContainerFactoryConfigurer configurer =
+                mock(SimpleRabbitListenerContainerFactoryConfigurer.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+        SimpleRabbitListenerContainerFactory factory = config.decisionsContainerFactory(
+                configurer, connectionFactory, mock(MessageConverter.class), mock(DecisionRetryRecoverer.class), 25, 100);
+
+        verify(configurer).configure(factory, connectionFactory);
+        SimpleMessageListenerContainer container = factory.createListenerContainer();
+        assertThat(container.isConsumerBatchEnabled()).isTrue();
+        assertThat(factory.getAdviceChain()).hasSize(1);
+    }
+
+    @Test
+    void decisionsRetryContainerFactory_consumesOneAtATimeWithoutRequeue() {
+        RabbitConfig config = new RabbitConfig();
+        SimpleRabbitListenerContainerFactoryConfigurer configurer =
+                mock(SimpleRabbitListenerContainerFactoryConfigurer.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+        SimpleRabbitListenerContainerFactory factory = config.decisionsRetryContainerFactory(
+                configurer, connectionFactory, mock(MessageConverter.class), mock(DecisionRetryRecoverer.class));
+
+        SimpleMessageListenerContainer container = factory.createListenerContainer();
+        assertThat(container.isConsumerBatchEnabled()).isFalse();
+        assertThat(factory.getAdviceChain()).hasSize(1);
+    }
 }
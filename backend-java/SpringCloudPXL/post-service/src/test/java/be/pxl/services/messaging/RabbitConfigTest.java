@@ -2,11 +2,17 @@ package be.pxl.services.messaging;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 
+import java.util.List;
+import java.util.UUID;
+
 import static be.pxl.services.messaging.MessagingNames.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -23,28 +29,80 @@ class RabbitConfigTest {
     }
 
     @Test
-    void decisionsQueue_hasCorrectNameAndIsDurable() {
-        Queue queue = config.decisionsQueue();
+    void decisionsHashExchange_hashesOnPostIdHeader() {
+        CustomExchange exchange = config.decisionsHashExchange();
 
-        assertThat(queue.getName()).isEqualTo(DECISIONS_QUEUE);
-        assertThat(queue.isDurable()).isTrue();
+        assertThat(exchange.getName()).isEqualTo(DECISIONS_HASH_EXCHANGE);
+        assertThat(exchange.getType()).isEqualTo("x-consistent-hash");
+        assertThat(exchange.isDurable()).isTrue();
+        assertThat(exchange.getArguments()).containsEntry("hash-header", POST_ID_HEADER);
     }
 
     @Test
-    void decisionsBinding_bindsQueueToExchangeWithCorrectRoutingKey() {
-        TopicExchange exchange = config.reviewExchange();
-        Queue queue = config.decisionsQueue();
+    void decisionPartitions_declaresOneSingleConsumerQueuePerPartition() {
+        Declarables partitions = config.decisionPartitions(config.decisionsHashExchange(), 3);
+
+        List<Queue> queues = partitions.getDeclarablesByType(Queue.class);
+        assertThat(queues).extracting(Queue::getName)
+                .containsExactly(DECISIONS_QUEUE + ".0", DECISIONS_QUEUE + ".1", DECISIONS_QUEUE + ".2");
+        assertThat(queues).allSatisfy(q -> {
+            assertThat(q.isDurable()).isTrue();
+            assertThat(q.getArguments())
+                    .containsEntry("x-single-active-consumer", true)
+                    .containsEntry("x-dead-letter-exchange", DECISIONS_DLX)
+                    .containsEntry("x-dead-letter-routing-key", PARKING_LOT_RK);
+        });
+        assertThat(partitions.getDeclarablesByType(Binding.class)).allSatisfy(binding -> {
+            assertThat(binding.getExchange()).isEqualTo(DECISIONS_HASH_EXCHANGE);
+            assertThat(binding.getRoutingKey()).isEqualTo("1");
+        });
+    }
+
+    @Test
+    void decisionRetryTopology_declaresExponentialTiersAndParkingLot() {
+        Declarables topology = config.decisionRetryTopology(3, 1000, 5);
 
-        Binding binding = config.decisionsBinding(exchange, queue);
+        List<Queue> queues = topology.getDeclarablesByType(Queue.class);
+        assertThat(queues).extracting(Queue::getName).contains(
+                DECISIONS_PARKING_LOT, DECISIONS_RETRIES_QUEUE,
+                DECISIONS_RETRY_QUEUE_PREFIX + 1, DECISIONS_RETRY_QUEUE_PREFIX + 2, DECISIONS_RETRY_QUEUE_PREFIX + 3);
+        assertThat(queues).filteredOn(q -> q.getName().startsWith(DECISIONS_RETRY_QUEUE_PREFIX))
+                .extracting(q -> q.getArguments().get("x-message-ttl"))
+                .containsExactly(1000, 5000, 25000);
+        assertThat(queues).filteredOn(q -> q.getName().startsWith(DECISIONS_RETRY_QUEUE_PREFIX))
+                .allSatisfy(q -> assertThat(q.getArguments())
+                        .containsEntry("x-dead-letter-exchange", "")
+                        .containsEntry("x-dead-letter-routing-key", DECISIONS_RETRIES_QUEUE));
+        assertThat(topology.getDeclarablesByType(Binding.class))
+                .extracting(Binding::getRoutingKey)
+                .containsExactlyInAnyOrder(PARKING_LOT_RK, "retry.1", "retry.2", "retry.3");
+    }
+
+    @Test
+    void decisionsHashBinding_bindsHashExchangeToReviewExchange() {
+        Binding binding = config.decisionsHashBinding(config.reviewExchange(), config.decisionsHashExchange());
 
         assertThat(binding.getExchange()).isEqualTo(REVIEW_EXCHANGE);
-        assertThat(binding.getDestination()).isEqualTo(DECISIONS_QUEUE);
+        assertThat(binding.getDestination()).isEqualTo(DECISIONS_HASH_EXCHANGE);
+        assertThat(binding.getDestinationType()).isEqualTo(Binding.DestinationType.EXCHANGE);
         assertThat(binding.getRoutingKey()).isEqualTo(POST_REVIEWED_RK);
     }
 
     @Test
-    void jackson2MessageConverter_isJacksonConverter() {
-        MessageConverter converter = config.jackson2MessageConverter();
-        assertThat(converter).isInstanceOf(Jackson2JsonMessageConverter.class);
+    void submissionsBinding_bindsQueueToExchangeWithSubmittedRoutingKey() {
+        Binding binding = config.submissionsBinding(config.reviewExchange(), config.submissionsQueue());
+
+        assertThat(binding.getDestination()).isEqualTo(SUBMISSIONS_QUEUE);
+        assertThat(binding.getRoutingKey()).isEqualTo(POST_SUBMITTED_RK);
+    }
+
+    @Test
+    void messageConverter_readsCompactDecisionsAndWritesJson() {
+        MessageConverter converter = config.messageConverter();
+        assertThat(converter).isInstanceOf(CompactDecisionMessageConverter.class);
+
+        Message message = converter.toMessage(new PostReviewedEvent(null, UUID.randomUUID(), "APPROVED", 1),
+                new MessageProperties());
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
     }
 }
@@ -0,0 +1,195 @@
+package be.pxl.services.services;
+
+import be.pxl.services.domain.Post;
+import be.pxl.services.domain.PostStatus;
+import be.pxl.services.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostContentIndexTest {
+
+    private PostRepository postRepository;
+    private PostContentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        index = new PostContentIndex(postRepository);
+    }
+
+    private PostRepository.ContentView row(UUID id, String content) {
+        return row(id, null, content);
+    }
+
+    private PostRepository.ContentView row(UUID id, LocalDateTime dateCreated, String content) {
+        return new PostRepository.ContentView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getDateCreated() {
+                return dateCreated;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+
+    private Post publishedPost(UUID id, String content) {
+        Post p = new Post("title", content);
+        p.setId(id);
+        p.setStatus(PostStatus.PUBLISHED);
+        return p;
+    }
+
+    private void rebuildWith(PostRepository.ContentView... rows) {
+        when(postRepository.findContentByStatus(eq(PostStatus.PUBLISHED), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(rows)));
+        index.rebuild();
+    }
+
+    @Test
+    void search_beforeRebuild_fallsBackToDatabase() {
+        assertEquals(Optional.empty(), index.search("java"));
+    }
+
+    @Test
+    void search_matchesAllTokensByPrefixIgnoringCase() {
+        UUID java = UUID.randomUUID();
+        UUID spring = UUID.randomUUID();
+        rebuildWith(row(java, "Learning Java and Spring Boot"), row(spring, "Spring is coming!"));
+
+        assertEquals(Set.of(java, spring), index.search("SPRING").orElseThrow());
+        assertEquals(Set.of(java), index.search("spring boo").orElseThrow());
+        assertEquals(Set.of(), index.search("kotlin").orElseThrow());
+    }
+
+    @Test
+    void search_queryWithoutTokens_fallsBackToDatabase() {
+        rebuildWith(row(UUID.randomUUID(), "anything"));
+
+        assertEquals(Optional.empty(), index.search(" - "));
+    }
+
+    @Test
+    void update_reindexesPublishedPostAndDropsOtherStatuses() {
+        UUID id = UUID.randomUUID();
+        rebuildWith(row(id, "old words"));
+
+        index.update(publishedPost(id, "fresh words"));
+        assertEquals(Set.of(), index.search("old").orElseThrow());
+        assertEquals(Set.of(id), index.search("fresh").orElseThrow());
+
+        Post rejected = publishedPost(id, "fresh words");
+        rejected.setStatus(PostStatus.REJECTED);
+        index.update(rejected);
+        assertEquals(Set.of(), index.search("words").orElseThrow());
+    }
+
+    @Test
+    void rebuild_removesPostsThatAreNoLongerPublished() {
+        UUID kept = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        rebuildWith(row(kept, "shared text"), row(gone, "shared text"));
+
+        rebuildWith(row(kept, "shared text"));
+
+        assertEquals(Set.of(kept), index.search("shared").orElseThrow());
+    }
+
+    @Test
+    void update_inTransaction_isAppliedOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        rebuildWith();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.update(publishedPost(id, "fresh words"));
+            assertEquals(Set.of(), index.search("fresh").orElseThrow());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Set.of(id), index.search("fresh").orElseThrow());
+    }
+
+    @Test
+    void update_rolledBack_leavesTheIndexAlone() {
+        UUID id = UUID.randomUUID();
+        rebuildWith(row(id, "old words"));
+        Post rejected = publishedPost(id, "old words");
+        rejected.setStatus(PostStatus.REJECTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.update(rejected);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Set.of(id), index.search("old").orElseThrow());
+    }
+
+    @Test
+    void rebuild_keepsChangesCommittedWhileItScans() {
+        UUID published = UUID.randomUUID();
+        UUID rejected = UUID.randomUUID();
+        rebuildWith(row(rejected, "old words"));
+        Post rejectedPost = publishedPost(rejected, "old words");
+        rejectedPost.setStatus(PostStatus.REJECTED);
+        when(postRepository.findContentByStatus(eq(PostStatus.PUBLISHED), any(Pageable.class))).thenAnswer(invocation -> {
+            // committed after the scan read its page, so the page does not reflect them
+            index.update(publishedPost(published, "fresh words"));
+            index.update(rejectedPost);
+            return new SliceImpl<>(List.of(row(rejected, "old words")));
+        });
+
+        index.rebuild();
+
+        assertEquals(Set.of(published), index.search("fresh").orElseThrow());
+        assertEquals(Set.of(), index.search("old").orElseThrow());
+    }
+
+    @Test
+    void inFeedOrder_sortsNewestFirstAndSkipsWhatTheCursorHasPassed() {
+        LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+        UUID older = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID low = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        // sorts above "low" as unsigned bytes, although it is a negative long
+        UUID high = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        UUID newest = UUID.fromString("00000000-0000-0000-0000-000000000003");
+        UUID undated = UUID.randomUUID();
+        rebuildWith(row(older, noon.minusDays(1), "java"), row(low, noon, "java"), row(high, noon, "java"),
+                row(newest, noon.plusDays(1), "java"), row(undated, "java"));
+        Set<UUID> matches = index.search("java").orElseThrow();
+
+        assertEquals(List.of(newest, high, low, older, undated), index.inFeedOrder(matches, null, null));
+        assertEquals(List.of(low, older, undated), index.inFeedOrder(matches, noon, high));
+    }
+}
@@ -1,36 +1,58 @@
 package be.pxl.services.services;
 
-import be.pxl.services.client.ReviewClient;
 import be.pxl.services.domain.Post;
 import be.pxl.services.domain.PostStatus;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchItem;
+import be.pxl.services.domain.dtos.PostCursor;
+import be.pxl.services.domain.dtos.PostSummary;
 import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
+import be.pxl.services.messaging.Outbox;
+import be.pxl.services.messaging.PostStatusChangedEvent;
+import be.pxl.services.messaging.PostSubmittedEvent;
 import be.pxl.services.repository.PostRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static be.pxl.services.messaging.MessagingNames.POST_EXCHANGE;
+import static be.pxl.services.messaging.MessagingNames.POST_STATUS_RK;
+import static be.pxl.services.messaging.MessagingNames.POST_SUBMITTED_RK;
+import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class PostServiceTest {
 
     private PostRepository postRepository;
-    private ReviewClient reviewClient;
+    private Outbox outbox;
+    private PostContentIndex contentIndex;
     private PostService postService;
 
     @BeforeEach
     void setUp() {
         postRepository = mock(PostRepository.class);
-        reviewClient = mock(ReviewClient.class);
-        postService = new PostService(postRepository, reviewClient);
+        outbox = mock(Outbox.class);
+        contentIndex = mock(PostContentIndex.class);
+        PublishedPostCache cache = new PublishedPostCache(new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+        postService = new PostService(postRepository, outbox, contentIndex, cache);
     }
 
     private Post buildPost(UUID id, String author, PostStatus status) {
@@ -54,6 +76,7 @@ class PostServiceTest {
 
         assertSame(p, result);
         verify(postRepository).save(p);
+        verify(outbox).enqueue(eq(POST_EXCHANGE), eq(POST_STATUS_RK), any(PostStatusChangedEvent.class));
     }
 
     // editPost
@@ -130,22 +153,139 @@ class PostServiceTest {
         LocalDate to = LocalDate.of(2024, 1, 31);
 
         List<Post> list = List.of(buildPost(UUID.randomUUID(), "alice", PostStatus.PUBLISHED));
-        when(postRepository.findByStatusAndFilters(eq(PostStatus.PUBLISHED), any(), any(), any(), any()))
+        when(postRepository.findByStatusAndFilters(eq(PostStatus.PUBLISHED), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(list);
 
-        List<Post> result =
-                postService.findPublishedPosts("java", "alice", from, to);
+        PageResponse<Post> result =
+                postService.findPublishedPosts("java", "alice", from, to, null, 20);
 
-        assertEquals(1, result.size());
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
         verify(postRepository).findByStatusAndFilters(
                 eq(PostStatus.PUBLISHED),
                 eq("java"),
                 eq("alice"),
                 eq(from.atStartOfDay()),
-                eq(to.atStartOfDay())
+                eq(to.atStartOfDay()),
+                isNull(),
+                isNull(),
+                eq(Limit.of(21))
         );
     }
 
+    @Test
+    void findPublishedPosts_fullPage_returnsCursorOfLastItem() {
+        Post first = buildPost(UUID.randomUUID(), "alice", PostStatus.PUBLISHED);
+        Post second = buildPost(UUID.randomUUID(), "bob", PostStatus.PUBLISHED);
+        Post extra = buildPost(UUID.randomUUID(), "carol", PostStatus.PUBLISHED);
+        when(postRepository.findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), eq(Limit.of(3))))
+                .thenReturn(List.of(first, second, extra));
+
+        PageResponse<Post> page = postService.findPublishedPosts(null, null, null, null, null, 2);
+
+        assertEquals(List.of(first, second), page.items());
+        assertEquals(PostCursor.of(second).encode(), page.next());
+    }
+
+    @Test
+    void findPublishedPosts_withCursor_continuesAfterCursorPosition() {
+        PostCursor cursor = new PostCursor(LocalDateTime.of(2024, 5, 1, 12, 0), UUID.randomUUID());
+        when(postRepository.findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+
+        postService.findPublishedPosts(null, null, null, null, cursor.encode(), 500);
+
+        verify(postRepository).findByStatusAndFilters(
+                eq(PostStatus.PUBLISHED), isNull(), isNull(), isNull(), isNull(),
+                eq(cursor.dateCreated()), eq(cursor.id()), eq(Limit.of(PostService.MAX_PAGE_SIZE + 1)));
+    }
+
+    @Test
+    void findPublishedPosts_invalidCursorOrLimit_throwsBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> postService.findPublishedPosts(null, null, null, null, "not-a-cursor", 20));
+        assertThrows(BadRequestException.class,
+                () -> postService.findPublishedPosts(null, null, null, null, null, 0));
+    }
+
+    @Test
+    void findPublishedPosts_contentFilter_usesIndexMatches() {
+        UUID match = UUID.randomUUID();
+        when(contentIndex.search("java")).thenReturn(Optional.of(Set.of(match)));
+        when(contentIndex.inFeedOrder(Set.of(match), null, null)).thenReturn(List.of(match));
+        when(postRepository.findByIdInAndStatusAndFilters(any(), eq(PostStatus.PUBLISHED), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(buildPost(match, "alice", PostStatus.PUBLISHED)));
+
+        PageResponse<Post> result = postService.findPublishedPosts("java", null, null, null, null, 20);
+
+        assertEquals(1, result.items().size());
+        verify(postRepository).findByIdInAndStatusAndFilters(
+                List.of(match), PostStatus.PUBLISHED, null, null, null, null, null, Limit.of(21));
+        verify(postRepository, never()).findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findPublishedPosts_manyIndexMatches_sendsOnePageOfCandidatesAtATime() {
+        List<UUID> candidates = Stream.generate(UUID::randomUUID).limit(50).toList();
+        when(contentIndex.search("java")).thenReturn(Optional.of(Set.copyOf(candidates)));
+        when(contentIndex.inFeedOrder(any(), isNull(), isNull())).thenReturn(candidates);
+        // the author filter keeps one candidate of the first batch and two of the second
+        when(postRepository.findByIdInAndStatusAndFilters(eq(candidates.subList(0, 3)), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(buildPost(candidates.get(1), "alice", PostStatus.PUBLISHED)));
+        when(postRepository.findByIdInAndStatusAndFilters(eq(candidates.subList(3, 9)), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(buildPost(candidates.get(4), "alice", PostStatus.PUBLISHED),
+                        buildPost(candidates.get(8), "alice", PostStatus.PUBLISHED)));
+
+        PageResponse<Post> result = postService.findPublishedPosts("java", "alice", null, null, null, 2);
+
+        assertEquals(List.of(candidates.get(1), candidates.get(4)), result.items().stream().map(Post::getId).toList());
+        assertNotNull(result.next());
+        verify(postRepository).findByIdInAndStatusAndFilters(
+                candidates.subList(0, 3), PostStatus.PUBLISHED, "alice", null, null, null, null, Limit.of(3));
+        verify(postRepository).findByIdInAndStatusAndFilters(
+                candidates.subList(3, 9), PostStatus.PUBLISHED, "alice", null, null, null, null, Limit.of(2));
+        verify(postRepository, times(2)).findByIdInAndStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findPublishedSummaries_usesProjectionQuery() {
+        PostSummary summary = new PostSummary(UUID.randomUUID(), "title", "excerpt", "alice",
+                PostStatus.PUBLISHED, LocalDateTime.now(), null);
+        when(postRepository.findSummariesByStatusAndFilters(eq(PostStatus.PUBLISHED), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(summary));
+
+        PageResponse<PostSummary> page = postService.findPublishedSummaries(null, "alice", null, null, null, 20);
+
+        assertEquals(List.of(summary), page.items());
+        verify(postRepository, never()).findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findPublishedPosts_repeatedQuery_isServedFromCacheUntilPublishedSetChanges() {
+        UUID id = UUID.randomUUID();
+        when(postRepository.findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of());
+        when(postRepository.findById(id)).thenReturn(Optional.of(buildPost(id, "alice", PostStatus.APPROVED)));
+
+        postService.findPublishedPosts(null, null, null, null, null, 20);
+        postService.findPublishedPosts(null, null, null, null, null, 20);
+        verify(postRepository, times(1)).findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any());
+
+        postService.updatePostStatus(id, PostStatus.PUBLISHED);
+        postService.findPublishedPosts(null, null, null, null, null, 20);
+        verify(postRepository, times(2)).findByStatusAndFilters(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findPublishedPosts_contentFilterWithoutIndexMatches_skipsDatabase() {
+        when(contentIndex.search("nothing")).thenReturn(Optional.of(Set.of()));
+
+        PageResponse<Post> result = postService.findPublishedPosts("nothing", null, null, null, null, 20);
+
+        assertTrue(result.items().isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+
     // getPostById
 
     @Test
@@ -159,6 +299,63 @@ class PostServiceTest {
         assertSame(existing, result);
     }
 
+    @Test
+    void getPostById_published_secondLookupIsServedFromCache() {
+        UUID id = UUID.randomUUID();
+        Post existing = buildPost(id, "alice", PostStatus.PUBLISHED);
+        when(postRepository.findById(id)).thenReturn(Optional.of(existing));
+
+        postService.getPostById(id, "bob");
+        Post result = postService.getPostById(id, "internal");
+
+        assertSame(existing, result);
+        verify(postRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void getPostById_unpublished_isNotCached() {
+        UUID id = UUID.randomUUID();
+        when(postRepository.findById(id)).thenReturn(Optional.of(buildPost(id, "alice", PostStatus.DRAFT)));
+
+        postService.getPostById(id, "alice");
+        postService.getPostById(id, "alice");
+
+        verify(postRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void updatePostStatus_evictsCachedPost() {
+        UUID id = UUID.randomUUID();
+        Post existing = buildPost(id, "alice", PostStatus.PUBLISHED);
+        when(postRepository.findById(id)).thenReturn(Optional.of(existing));
+        postService.getPostById(id, "bob");
+
+        postService.updatePostStatus(id, PostStatus.REJECTED);
+
+        assertThrows(IllegalStateException.class, () -> postService.getPostById(id, "bob"));
+    }
+
+    @Test
+    void updatePostStatus_inTransaction_evictsCachedPostOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        when(postRepository.findById(id)).thenReturn(Optional.of(buildPost(id, "alice", PostStatus.PUBLISHED)));
+        postService.getPostById(id, "internal");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postService.updatePostStatus(id, PostStatus.REJECTED);
+            postService.getPostById(id, "internal");
+            verify(postRepository, times(2)).findById(id);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        postService.getPostById(id, "internal");
+
+        verify(postRepository, times(3)).findById(id);
+    }
+
     @Test
     void getPostById_unpublished_visibleToAuthor() {
         UUID id = UUID.randomUUID();
@@ -200,10 +397,65 @@ class PostServiceTest {
                 () -> postService.getPostById(id, "alice"));
     }
 
+    // getPostsByIds
+
+    private PostSummary summary(UUID id, String author, PostStatus status) {
+        return new PostSummary(id, "title", "excerpt", author, status, LocalDateTime.now(), null);
+    }
+
+    @Test
+    void getPostsByIds_defaultMask_usesSummaryQueryAndKeepsRequestOrder() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        when(postRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                summary(b, "bob", PostStatus.PUBLISHED),
+                summary(a, "alice", PostStatus.PUBLISHED)));
+
+        List<PostBatchItem> items = postService.getPostsByIds(List.of(a, b, a), null, "internal");
+
+        assertEquals(List.of(a, b), items.stream().map(PostBatchItem::id).toList());
+        assertEquals("excerpt", items.get(0).excerpt());
+        assertNull(items.get(0).content());
+        verify(postRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getPostsByIds_contentInMask_loadsEntities() {
+        UUID id = UUID.randomUUID();
+        when(postRepository.findAllById(any())).thenReturn(List.of(buildPost(id, "alice", PostStatus.PUBLISHED)));
+
+        List<PostBatchItem> items = postService.getPostsByIds(List.of(id), Set.of("content"), "bob");
+
+        assertEquals("content", items.get(0).content());
+        assertNull(items.get(0).title());
+        verify(postRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void getPostsByIds_leavesOutPostsHiddenFromUser() {
+        UUID published = UUID.randomUUID();
+        UUID ownDraft = UUID.randomUUID();
+        UUID otherDraft = UUID.randomUUID();
+        when(postRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                summary(published, "bob", PostStatus.PUBLISHED),
+                summary(ownDraft, "alice", PostStatus.DRAFT),
+                summary(otherDraft, "bob", PostStatus.DRAFT)));
+
+        List<PostBatchItem> items = postService.getPostsByIds(List.of(published, ownDraft, otherDraft), null, "alice");
+
+        assertEquals(List.of(published, ownDraft), items.stream().map(PostBatchItem::id).toList());
+    }
+
+    @Test
+    void getPostsByIds_unknownField_throwsBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> postService.getPostsByIds(List.of(UUID.randomUUID()), Set.of("password"), "internal"));
+    }
+
     // submitForReview
 
     @Test
-    void submitForReview_happyPath_setsPendingReview_andCallsReviewClient() {
+    void submitForReview_happyPath_setsPendingReview_andEnqueuesSubmission() {
         UUID id = UUID.randomUUID();
         Post existing = buildPost(id, "alice", PostStatus.DRAFT);
         when(postRepository.findById(id)).thenReturn(Optional.of(existing));
@@ -213,7 +465,7 @@ class PostServiceTest {
 
         assertEquals(PostStatus.PENDING_REVIEW, saved.getStatus());
         verify(postRepository).save(existing);
-        verify(reviewClient).submit(any(ReviewClient.SubmitReviewRequest.class));
+        verify(outbox).enqueue(REVIEW_EXCHANGE, POST_SUBMITTED_RK, new PostSubmittedEvent(id, "alice", "title"));
     }
 
     @Test
@@ -257,6 +509,7 @@ class PostServiceTest {
 
         assertEquals(PostStatus.PUBLISHED, existing.getStatus());
         verify(postRepository).save(existing);
+        verify(outbox).enqueue(POST_EXCHANGE, POST_STATUS_RK, new PostStatusChangedEvent(id, PostStatus.PUBLISHED));
     }
 
     @Test
@@ -1,17 +1,27 @@
 package be.pxl.services.client;
 
+import be.pxl.services.domain.dtos.PostBatchRequest;
 import be.pxl.services.domain.dtos.PostResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "post-service", url = "http://localhost:8081", path = "/api/posts")
+@FeignClient(name = "post-service", path = "/api/posts")
 public interface PostServiceClient {
 
     @GetMapping("/{postId}")
     PostResponse getPostById(@PathVariable("postId") UUID postId, @RequestHeader("user") String user);
 
+    /**
+     * Fetches up to 100 posts in one call; fields outside the mask come back null and missing posts are left out.
+     */
+    @PostMapping("/batch")
+    List<PostResponse> getPostsByIds(@RequestBody PostBatchRequest request, @RequestHeader("user") String user);
+
 }
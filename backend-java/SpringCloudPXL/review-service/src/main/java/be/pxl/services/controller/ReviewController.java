@@ -1,6 +1,11 @@
 package be.pxl.services.controller;
 
 import be.pxl.services.domain.Review;
+import be.pxl.services.domain.dtos.BatchDecisionRequest;
+import be.pxl.services.domain.dtos.ClaimedReviewResponse;
+import be.pxl.services.domain.dtos.DecisionResult;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PendingReviewResponse;
 import be.pxl.services.domain.dtos.ReviewMapper;
 import be.pxl.services.domain.dtos.ReviewRequest;
 import be.pxl.services.domain.dtos.SubmitReviewRequest;
@@ -10,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,6 +34,28 @@ public class ReviewController {
         reviewService.submit(req);
     }
 
+    @GetMapping("/pending")
+    public ResponseEntity<PageResponse<PendingReviewResponse>> getPending(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.findPending(cursor, limit).map(ReviewMapper::toPendingResponse));
+    }
+
+    @PostMapping("/claim")
+    public ResponseEntity<List<ClaimedReviewResponse>> claim(@RequestParam(defaultValue = "10") int limit) {
+        String reviewerId = "editor_mock_id"; // AuthUtils.getCurrentUserIdentifier();
+
+        List<Review> claimed = reviewService.claimNext(reviewerId, limit);
+        return ResponseEntity.ok(claimed.stream().map(ReviewMapper::toClaimedResponse).toList());
+    }
+
+    @PostMapping("/decisions:batch")
+    public ResponseEntity<List<DecisionResult>> decideAll(@Valid @RequestBody BatchDecisionRequest request) {
+        String reviewerId = "editor_mock_id"; // AuthUtils.getCurrentUserIdentifier();
+
+        return ResponseEntity.ok(reviewService.decideAll(reviewerId, request.decisions()));
+    }
+
     @PostMapping("/{postId}/approve")
     public ResponseEntity<Review> approvePost(@PathVariable String postId) {
         String reviewerId = "editor_mock_id"; // AuthUtils.getCurrentUserIdentifier();
@@ -9,14 +9,23 @@ import java.util.UUID;
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     private UUID postId;
+    // copied from the submission so the queue can be listed without asking post-service
+    private String postTitle;
+    private String postAuthor;
+    private LocalDateTime submittedAt;
     private String reviewerId;
     @Enumerated(EnumType.STRING)
     private ReviewStatus status;
     private String rejectionComment;
     private LocalDateTime reviewDate;
+    // reviewer currently working on this review; the claim lapses at leaseExpiresAt
+    private String claimedBy;
+    private LocalDateTime leaseExpiresAt;
+    @Version
+    private long version;
 
     public Review() {
         this.status = ReviewStatus.PENDING;
@@ -45,6 +54,30 @@ public class Review {
         this.postId = postId;
     }
 
+    public String getPostTitle() {
+        return postTitle;
+    }
+
+    public void setPostTitle(String postTitle) {
+        this.postTitle = postTitle;
+    }
+
+    public String getPostAuthor() {
+        return postAuthor;
+    }
+
+    public void setPostAuthor(String postAuthor) {
+        this.postAuthor = postAuthor;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
     public String getReviewerId() {
         return reviewerId;
     }
@@ -76,4 +109,37 @@ public class Review {
     public void setReviewDate(LocalDateTime reviewDate) {
         this.reviewDate = reviewDate;
     }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * True when another reviewer holds an unexpired claim on this review.
+     */
+    public boolean isClaimedByOtherThan(String reviewerId, LocalDateTime now) {
+        return claimedBy != null && !claimedBy.equals(reviewerId)
+                && leaseExpiresAt != null && leaseExpiresAt.isAfter(now);
+    }
+
+    public void releaseClaim() {
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+    }
 }
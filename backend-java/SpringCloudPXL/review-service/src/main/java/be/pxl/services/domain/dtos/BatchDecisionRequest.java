@@ -0,0 +1,30 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.ReviewStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchDecisionRequest(
+        @NotEmpty
+        @Size(max = MAX_DECISIONS, message = "At most " + MAX_DECISIONS + " decisions per batch.")
+        List<@Valid @NotNull Item> decisions
+) {
+
+    public static final int MAX_DECISIONS = 100;
+
+    /**
+     * @param decision {@code APPROVED} or {@code REJECTED}; a rejection requires a comment
+     */
+    public record Item(
+            @NotNull UUID postId,
+            @NotNull ReviewStatus decision,
+            @Size(max = 500, message = "Comment must be less than 500 characters.")
+            String comment
+    ) {
+    }
+}
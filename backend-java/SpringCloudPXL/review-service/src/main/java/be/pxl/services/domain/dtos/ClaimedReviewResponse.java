@@ -0,0 +1,14 @@
+package be.pxl.services.domain.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ClaimedReviewResponse(
+        UUID id,
+        UUID postId,
+        String postTitle,
+        String postAuthor,
+        LocalDateTime submittedAt,
+        LocalDateTime leaseExpiresAt
+) {
+}
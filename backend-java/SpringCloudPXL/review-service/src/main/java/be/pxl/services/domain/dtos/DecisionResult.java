@@ -0,0 +1,22 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.ReviewStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one decision in a batch. {@code error} is set when the decision was not applied, in which
+ * case {@code status} is the review's unchanged status (or absent when the post is unknown).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DecisionResult(UUID postId, ReviewStatus status, String error) {
+
+    public static DecisionResult applied(UUID postId, ReviewStatus status) {
+        return new DecisionResult(postId, status, null);
+    }
+
+    public static DecisionResult skipped(UUID postId, ReviewStatus status, String error) {
+        return new DecisionResult(postId, status, error);
+    }
+}
@@ -0,0 +1,13 @@
+package be.pxl.services.domain.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PendingReviewResponse(
+        UUID id,
+        UUID postId,
+        String postTitle,
+        String postAuthor,
+        LocalDateTime submittedAt
+) {
+}
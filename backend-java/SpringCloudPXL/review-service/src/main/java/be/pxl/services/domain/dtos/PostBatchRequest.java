@@ -0,0 +1,12 @@
+package be.pxl.services.domain.dtos;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @param fields optional field mask (title, excerpt, content, author, dateCreated, dateUpdated);
+ *               {@code id} and {@code status} are always returned
+ */
+public record PostBatchRequest(List<UUID> ids, Set<String> fields) {
+}
@@ -0,0 +1,43 @@
+package be.pxl.services.domain.dtos;
+
+import be.pxl.services.domain.Review;
+import be.pxl.services.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the pending-review queue, which is ordered by {@code (submittedAt, id)} ascending.
+ * Clients only ever see the encoded form.
+ */
+public record ReviewCursor(LocalDateTime submittedAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ReviewCursor of(Review review) {
+        return new ReviewCursor(review.getSubmittedAt(), review.getId());
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new ReviewCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = submittedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -12,4 +12,25 @@ public final class ReviewMapper {
                 request.comment()
         );
     }
+
+    public static PendingReviewResponse toPendingResponse(Review review) {
+        return new PendingReviewResponse(
+                review.getId(),
+                review.getPostId(),
+                review.getPostTitle(),
+                review.getPostAuthor(),
+                review.getSubmittedAt()
+        );
+    }
+
+    public static ClaimedReviewResponse toClaimedResponse(Review review) {
+        return new ClaimedReviewResponse(
+                review.getId(),
+                review.getPostId(),
+                review.getPostTitle(),
+                review.getPostAuthor(),
+                review.getSubmittedAt(),
+                review.getLeaseExpiresAt()
+        );
+    }
 }
@@ -0,0 +1,145 @@
+package be.pxl.services.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Append-only file of review decisions the broker did not confirm, one JSON event per line.
+ * <p>
+ * Lines are written with {@code DSYNC} so they survive a crash. {@link #replay} hands the whole backlog to
+ * a sender and rewrites the file with whatever is still unconfirmed. The file lock is only held to read and rewrite
+ * it, never while the sender waits for the broker, so decisions failing meanwhile are still journaled at once.
+ */
+@Component
+public class DecisionJournal {
+
+    private final Logger log = LoggerFactory.getLogger(DecisionJournal.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final AtomicLong backlog = new AtomicLong();
+    // one replay at a time, so the file only grows between a replay's read and its rewrite
+    private final Object replaying = new Object();
+
+    public DecisionJournal(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${reviews.decisions.journal-path:data/decision-journal.jsonl}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.backlog.set(read().size());
+        Gauge.builder("reviews.decisions.retry.backlog", backlog, AtomicLong::get)
+                .description("Unconfirmed review decisions waiting in the local journal")
+                .register(meterRegistry);
+    }
+
+    public synchronized void append(Collection<PostReviewedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC)) {
+                for (PostReviewedEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+            backlog.addAndGet(events.size());
+            log.warn("Journaled {} unconfirmed review decision(s) for replay", events.size());
+        } catch (IOException ex) {
+            // last resort: the decisions are only left in the log
+            log.error("Could not journal review decisions {}", events, ex);
+        }
+    }
+
+    /**
+     * Passes every journaled event to {@code sender}, which returns the ones that are still unconfirmed;
+     * only those are kept, together with any event appended while the sender ran.
+     */
+    public void replay(UnaryOperator<List<PostReviewedEvent>> sender) {
+        synchronized (replaying) {
+            List<PostReviewedEvent> events;
+            synchronized (this) {
+                events = read();
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+            log.info("Replaying {} journaled review decision(s)", events.size());
+            List<PostReviewedEvent> remaining = sender.apply(events);
+            synchronized (this) {
+                List<PostReviewedEvent> current = read();
+                List<PostReviewedEvent> kept = new ArrayList<>(remaining);
+                kept.addAll(current.subList(Math.min(events.size(), current.size()), current.size()));
+                try {
+                    rewrite(kept);
+                    backlog.set(kept.size());
+                } catch (IOException ex) {
+                    // the old file is still in place, so replayed events may be sent again; consumers tolerate duplicates
+                    log.error("Could not rewrite the decision journal", ex);
+                }
+            }
+        }
+    }
+
+    public long backlog() {
+        return backlog.get();
+    }
+
+    private List<PostReviewedEvent> read() {
+        List<PostReviewedEvent> events = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return events;
+        }
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(objectMapper.readValue(line, PostReviewedEvent.class));
+                } catch (JsonProcessingException ex) {
+                    log.warn("Skipping unreadable journal line: {}", line);
+                }
+            }
+        } catch (IOException ex) {
+            log.error("Could not read the decision journal at {}", path, ex);
+        }
+        return events;
+    }
+
+    private void rewrite(List<PostReviewedEvent> events) throws IOException {
+        if (events.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>(events.size());
+        for (PostReviewedEvent event : events) {
+            lines.add(objectMapper.writeValueAsString(event));
+        }
+        Files.write(tmp, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,15 +1,40 @@
 package be.pxl.services.messaging;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static be.pxl.services.messaging.MessagingNames.POST_ID_HEADER;
 import static be.pxl.services.messaging.MessagingNames.POST_REVIEWED_RK;
-import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
 
+/**
+ * Publishes review decisions with correlated publisher confirms
+ * (requires {@code spring.rabbitmq.publisher-confirm-type=correlated}).
+ * <p>
+ * {@link #publish} only puts the event in a bounded in-memory buffer; a scheduled flush sends the buffer in
+ * batches and waits for all confirms of a batch at once. Whatever the broker does not confirm, or what does not
+ * fit in the buffer, goes to the {@link DecisionJournal} and is replayed on startup and periodically after.
+ */
 @Component
 public class DecisionPublisher {
 
@@ -17,14 +42,131 @@ public class DecisionPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final TopicExchange reviewExchange;
+    private final DecisionJournal journal;
+    private final BlockingQueue<PostReviewedEvent> buffer;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final Timer confirmLatency;
 
-    public DecisionPublisher(RabbitTemplate rabbitTemplate, TopicExchange reviewExchange) {
+    public DecisionPublisher(RabbitTemplate rabbitTemplate,
+                             TopicExchange reviewExchange,
+                             DecisionJournal journal,
+                             MeterRegistry meterRegistry,
+                             @Value("${reviews.decisions.buffer-capacity:10000}") int bufferCapacity,
+                             @Value("${reviews.decisions.batch-size:100}") int batchSize,
+                             @Value("${reviews.decisions.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
         this.rabbitTemplate = rabbitTemplate;
         this.reviewExchange = reviewExchange;
+        this.journal = journal;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        Gauge.builder("reviews.decisions.buffer.size", buffer, BlockingQueue::size)
+                .description("Review decisions waiting to be published")
+                .register(meterRegistry);
+        this.confirmLatency = Timer.builder("reviews.decisions.confirm.latency")
+                .description("Time from sending a review decision until the broker confirmed it")
+                .register(meterRegistry);
     }
 
+    /**
+     * Queues the event for the next flush and returns immediately.
+     */
     public void publish(PostReviewedEvent evt) {
         log.info("Publishing review decision: postId={}, decision={}", evt.postId(), evt.decision());
-        rabbitTemplate.convertAndSend(reviewExchange.getName(), POST_REVIEWED_RK, evt);
+        if (!buffer.offer(evt)) {
+            log.warn("Decision buffer full; journaling decision for post {}", evt.postId());
+            journal.append(List.of(evt));
+        }
+    }
+
+    /**
+     * Sends all events right away, without waiting for the next flush, and blocks until their confirms arrive.
+     * Whatever the broker nacks or does not confirm in time is journaled for replay, like a failed flush.
+     */
+    public void publishAll(List<PostReviewedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        log.info("Publishing {} review decisions", events.size());
+        journal.append(send(events));
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.decisions.flush-interval-ms:50}")
+    public void flush() {
+        List<PostReviewedEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            journal.append(send(batch));
+            batch.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reviews.decisions.replay-interval-ms:60000}",
+            fixedDelayString = "${reviews.decisions.replay-interval-ms:60000}")
+    public void replayJournal() {
+        journal.replay(this::send);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int buffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Sends the events back to back, then waits for their confirms. Returns the events that were not confirmed.
+     */
+    List<PostReviewedEvent> send(List<PostReviewedEvent> events) {
+        List<PostReviewedEvent> unconfirmed = new ArrayList<>();
+        List<PostReviewedEvent> sent = new ArrayList<>(events.size());
+        List<CorrelationData> confirms = new ArrayList<>(events.size());
+        for (PostReviewedEvent evt : events) {
+            // the event id, not the post id: two decisions on one post can be in flight at once
+            CorrelationData correlation = new CorrelationData(evt.eventId().toString());
+            long sentAt = System.nanoTime();
+            correlation.getFuture().whenComplete((confirm, ex) ->
+                    confirmLatency.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS));
+            try {
+                rabbitTemplate.convertAndSend(reviewExchange.getName(), POST_REVIEWED_RK, evt, message -> {
+                    message.getMessageProperties().setMessageId(evt.eventId().toString());
+                    message.getMessageProperties().setHeader(POST_ID_HEADER, evt.postId().toString());
+                    return message;
+                }, correlation);
+                sent.add(evt);
+                confirms.add(correlation);
+            } catch (AmqpException ex) {
+                log.warn("Could not send review decision {} for post {}: {}", evt.eventId(), evt.postId(), ex.getMessage());
+                unconfirmed.add(evt);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (int i = 0; i < sent.size(); i++) {
+            if (!isAcked(confirms.get(i), deadline)) {
+                unconfirmed.add(sent.get(i));
+            }
+        }
+        return unconfirmed;
+    }
+
+    private boolean isAcked(CorrelationData correlation, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            CorrelationData.Confirm confirm = correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                log.warn("Broker nacked review decision {}: {}", correlation.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (TimeoutException | ExecutionException ex) {
+            log.warn("No confirm for review decision {}", correlation.getId());
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -6,4 +6,10 @@ public final class MessagingNames {
     public static final String REVIEW_EXCHANGE = "review.exchange";
     public static final String POST_REVIEWED_RK = "post.reviewed";
     public static final String DECISIONS_QUEUE = "review.decisions";
+    // post-service partitions decisions by a hash of this header
+    public static final String POST_ID_HEADER = "x-post-id";
+    // binary PostReviewedEvent, see CompactDecisionMessageConverter; anything else is JSON
+    public static final String COMPACT_DECISION_CONTENT_TYPE = "application/vnd.pxl.decision+binary";
+    public static final String POST_SUBMITTED_RK = "post.submitted";
+    public static final String SUBMISSIONS_QUEUE = "review.submissions";
 }
@@ -1,8 +1,22 @@
 package be.pxl.services.messaging;
 
+import be.pxl.services.domain.Review;
+import be.pxl.services.domain.UuidV7Generator;
+
 import java.io.Serializable;
 import java.util.UUID;
-public record PostReviewedEvent(UUID postId, String decision) implements Serializable {
-    private static final long serialVersionUID = 1L;
-}
 
+/**
+ * @param eventId  unique per decision, so consumers can recognise redeliveries
+ * @param sequence the review's version after the decision; increases with every change to the review of a post,
+ *                 so a consumer can drop a decision older than one it already applied. Decisions are only published
+ *                 after their transaction committed, so a rolled back change never hands out a sequence that is
+ *                 used again later
+ */
+public record PostReviewedEvent(UUID eventId, UUID postId, String decision, long sequence) implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    public static PostReviewedEvent of(Review review) {
+        return new PostReviewedEvent(UuidV7Generator.next(), review.getPostId(), review.getStatus().name(), review.getVersion());
+    }
+}
@@ -0,0 +1,7 @@
+package be.pxl.services.messaging;
+
+import java.io.Serializable;
+import java.util.UUID;
+public record PostSubmittedEvent(UUID postId, String author, String title) implements Serializable {
+    private static final long serialVersionUID = 1L;
+}
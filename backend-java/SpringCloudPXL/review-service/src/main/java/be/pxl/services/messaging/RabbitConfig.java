@@ -1,21 +1,32 @@
 package be.pxl.services.messaging;
 
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import static be.pxl.services.messaging.MessagingNames.POST_SUBMITTED_RK;
 import static be.pxl.services.messaging.MessagingNames.REVIEW_EXCHANGE;
+import static be.pxl.services.messaging.MessagingNames.SUBMISSIONS_QUEUE;
 
 @Configuration
 public class RabbitConfig {
+    /**
+     * Decisions go out as JSON until {@code reviews.decisions.compact-encoding} is switched on, which should only
+     * happen once every consumer reads the compact form.
+     */
     @Bean
-    public MessageConverter jackson2MessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(@Value("${reviews.decisions.compact-encoding:false}") boolean compactEncoding) {
+        return new CompactDecisionMessageConverter(new Jackson2JsonMessageConverter(), compactEncoding);
     }
 
     @Bean
@@ -29,5 +40,14 @@ public class RabbitConfig {
     public TopicExchange reviewExchange() {
         return new TopicExchange(REVIEW_EXCHANGE, true, false);
     }
-}
 
+    @Bean
+    public Queue submissionsQueue() {
+        return QueueBuilder.durable(SUBMISSIONS_QUEUE).build();
+    }
+
+    @Bean
+    public Binding submissionsBinding(TopicExchange reviewExchange, Queue submissionsQueue) {
+        return BindingBuilder.bind(submissionsQueue).to(reviewExchange).with(POST_SUBMITTED_RK);
+    }
+}
@@ -0,0 +1,32 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.dtos.SubmitReviewRequest;
+import be.pxl.services.service.IReviewService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import static be.pxl.services.messaging.MessagingNames.SUBMISSIONS_QUEUE;
+
+/**
+ * Consumes the submissions post-service relays from its outbox. Delivery is at-least-once, so
+ * {@link IReviewService#submit} must tolerate seeing the same post twice.
+ */
+@Component
+public class SubmissionListener {
+
+    private final Logger log = LoggerFactory.getLogger(SubmissionListener.class);
+
+    private final IReviewService reviewService;
+
+    public SubmissionListener(IReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @RabbitListener(queues = SUBMISSIONS_QUEUE)
+    public void onSubmitted(PostSubmittedEvent evt) {
+        log.info("Received submission: postId={}, author={}", evt.postId(), evt.author());
+        reviewService.submit(new SubmitReviewRequest(evt.postId(), evt.author(), evt.title()));
+    }
+}
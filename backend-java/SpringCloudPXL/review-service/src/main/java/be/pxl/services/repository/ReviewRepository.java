@@ -1,13 +1,60 @@
 package be.pxl.services.repository;
 
 import be.pxl.services.domain.Review;
+import be.pxl.services.domain.ReviewStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
     Optional<Review> findByPostId(UUID postId);
+
+    List<Review> findAllByPostIdIn(Collection<UUID> postIds);
+
+    /**
+     * Reviews in the given status in submission order, starting after the cursor if one is given.
+     * Backed by the (status, submitted_at, id) index.
+     */
+    @Query("SELECT r FROM Review r " +
+            "WHERE r.status = :status " +
+            "AND (:cursorDate IS NULL OR r.submittedAt > :cursorDate " +
+            "OR (r.submittedAt = :cursorDate AND r.id > :cursorId)) " +
+            "ORDER BY r.submittedAt ASC, r.id ASC")
+    List<Review> findByStatusInSubmissionOrder(
+            @Param("status") ReviewStatus status,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
+    );
+
+    /**
+     * Locks the oldest unclaimed pending reviews. Rows another transaction is claiming are skipped
+     * instead of waited for, so concurrent reviewers each get a disjoint batch.
+     * Must run inside a transaction; the locks are held until it commits.
+     */
+    @Query(value = "SELECT * FROM review " +
+            "WHERE status = 'PENDING' AND claimed_by IS NULL " +
+            "ORDER BY submitted_at, id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Review> lockUnclaimedPending(@Param("limit") int limit);
+
+    /**
+     * Returns reviews whose lease ran out to the unclaimed pool. Bumps the version so a reviewer still
+     * holding the stale entity cannot decide on it anymore.
+     */
+    @Modifying
+    @Query("UPDATE Review r SET r.claimedBy = NULL, r.leaseExpiresAt = NULL, r.version = r.version + 1 " +
+            "WHERE r.status = :status AND r.leaseExpiresAt < :now")
+    int releaseExpiredLeases(@Param("status") ReviewStatus status, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,29 @@
+package be.pxl.services.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically hands reviews whose claim lease has expired back to the unclaimed pool.
+ */
+@Component
+public class ClaimReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimReaper.class);
+
+    private final IReviewService reviewService;
+
+    public ClaimReaper(IReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.claims.reclaim-interval-ms:30000}")
+    public void reclaimExpired() {
+        int released = reviewService.releaseExpiredClaims();
+        if (released > 0) {
+            logger.info("Released {} expired review claims", released);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package be.pxl.services.service;
 
 import be.pxl.services.domain.Review;
+import be.pxl.services.domain.dtos.BatchDecisionRequest;
+import be.pxl.services.domain.dtos.DecisionResult;
+import be.pxl.services.domain.dtos.PageResponse;
 import be.pxl.services.domain.dtos.ReviewRequest;
 import be.pxl.services.domain.dtos.SubmitReviewRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -12,5 +16,13 @@ public interface IReviewService {
     Review approvePost(UUID postId, String reviewerId);
     Review rejectPost(UUID postId, String reviewerId, Review request);
 
+    List<DecisionResult> decideAll(String reviewerId, List<BatchDecisionRequest.Item> decisions);
+
     void submit(SubmitReviewRequest req);
+
+    PageResponse<Review> findPending(String cursor, int limit);
+
+    List<Review> claimNext(String reviewerId, int limit);
+
+    int releaseExpiredClaims();
 }
\ No newline at end of file
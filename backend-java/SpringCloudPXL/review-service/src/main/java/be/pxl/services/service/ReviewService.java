@@ -3,54 +3,139 @@ package be.pxl.services.service;
 import be.pxl.services.client.PostServiceClient;
 import be.pxl.services.domain.Review;
 import be.pxl.services.domain.ReviewStatus;
+import be.pxl.services.domain.dtos.BatchDecisionRequest;
+import be.pxl.services.domain.dtos.DecisionResult;
+import be.pxl.services.domain.dtos.PageResponse;
+import be.pxl.services.domain.dtos.PostBatchRequest;
 import be.pxl.services.domain.dtos.PostResponse;
 import be.pxl.services.domain.dtos.PostStatus;
+import be.pxl.services.domain.dtos.ReviewCursor;
 import be.pxl.services.domain.dtos.SubmitReviewRequest;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
 import be.pxl.services.messaging.DecisionPublisher;
 import be.pxl.services.messaging.PostReviewedEvent;
 import be.pxl.services.repository.ReviewRepository;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ReviewService implements IReviewService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_CLAIM_SIZE = 50;
+    private static final Set<String> LEGACY_POST_FIELDS = Set.of("title", "author");
 
     private final ReviewRepository reviewRepository;
     private final PostServiceClient postServiceClient;
     private final DecisionPublisher decisionPublisher;
+    private final Duration leaseDuration;
 
-    public ReviewService(ReviewRepository reviewRepository, PostServiceClient postServiceClient, DecisionPublisher decisionPublisher) {
+    public ReviewService(ReviewRepository reviewRepository,
+                         PostServiceClient postServiceClient,
+                         DecisionPublisher decisionPublisher,
+                         @Value("${reviews.claims.lease-duration:PT5M}") Duration leaseDuration) {
         this.reviewRepository = reviewRepository;
         this.postServiceClient = postServiceClient;
         this.decisionPublisher = decisionPublisher;
+        this.leaseDuration = leaseDuration;
     }
 
     @Override
+    @Transactional
     public void submit(SubmitReviewRequest req){
         logger.info("Review request received for post {}", req.postId());
+        Review review = reviewRepository.findByPostId(req.postId()).orElseGet(Review::new);
+        // submissions are delivered at least once: a post that is already queued keeps its place
+        boolean alreadyQueued = review.getId() != null && review.getStatus() == ReviewStatus.PENDING;
+
+        review.setPostId(req.postId());
+        review.setPostTitle(req.title());
+        review.setPostAuthor(req.author());
+        if (!alreadyQueued) {
+            review.setStatus(ReviewStatus.PENDING);
+            review.setReviewerId(null);
+            review.setRejectionComment(null);
+            review.releaseClaim();
+            review.setSubmittedAt(LocalDateTime.now());
+        }
+        reviewRepository.save(review);
+    }
+
+    @Override
+    public PageResponse<Review> findPending(String cursor, int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        ReviewCursor after = ReviewCursor.decode(cursor);
+        List<Review> rows = reviewRepository.findByStatusInSubmissionOrder(
+                ReviewStatus.PENDING,
+                after != null ? after.submittedAt() : null,
+                after != null ? after.id() : null,
+                Limit.of(pageSize + 1)
+        );
+        return PageResponse.of(rows, pageSize, row -> ReviewCursor.of(row).encode());
+    }
+
+    @Override
+    @Transactional
+    public List<Review> claimNext(String reviewerId, int limit) {
+        if (limit < 1 || limit > MAX_CLAIM_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_CLAIM_SIZE);
+        }
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().plus(leaseDuration);
+        List<Review> claimed = reviewRepository.lockUnclaimedPending(limit);
+        claimed.forEach(review -> {
+            review.setClaimedBy(reviewerId);
+            review.setLeaseExpiresAt(leaseExpiresAt);
+        });
+        logger.info("Reviewer {} claimed {} reviews until {}", reviewerId, claimed.size(), leaseExpiresAt);
+        return reviewRepository.saveAll(claimed);
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpiredClaims() {
+        return reviewRepository.releaseExpiredLeases(ReviewStatus.PENDING, LocalDateTime.now());
     }
 
     @Override
     public Review approvePost(UUID postId, String reviewerId) {
-        PostResponse post = getPostById(postId);
-        Review review = reviewRepository.findByPostId(postId).orElse(new Review());
+        Review review = findReviewFor(postId);
 
         if (review.getStatus() != ReviewStatus.PENDING) {
             throw new IllegalStateException("Post review is already " + review.getStatus() + ".");
         }
+        if (review.isClaimedByOtherThan(reviewerId, LocalDateTime.now())) {
+            throw new IllegalStateException("Post review is claimed by another reviewer.");
+        }
         review.setPostId(postId);
         review.setReviewerId(reviewerId);
         review.setStatus(ReviewStatus.APPROVED);
+        review.releaseClaim();
 
         Review savedReview = reviewRepository.save(review);
 
-        decisionPublisher.publish(new PostReviewedEvent(postId, "APPROVED"));
+        decisionPublisher.publish(PostReviewedEvent.of(savedReview));
         logger.info("Notification: Post {} was APPROVED by {}.", postId, reviewerId);
 
         return savedReview;
@@ -58,12 +143,14 @@ public class ReviewService implements IReviewService {
 
     @Override
     public Review rejectPost(UUID postId, String reviewerId, Review request) {
-        getPostById(postId);
-        Review review = reviewRepository.findByPostId(postId).orElse(new Review());
+        Review review = findReviewFor(postId);
 
         if (review.getStatus() != ReviewStatus.PENDING) {
             throw new IllegalStateException("Post review is already " + review.getStatus() + ".");
         }
+        if (review.isClaimedByOtherThan(reviewerId, LocalDateTime.now())) {
+            throw new IllegalStateException("Post review is claimed by another reviewer.");
+        }
 
         if (request.getRejectionComment() == null || request.getRejectionComment().trim().isEmpty()) {
             throw new IllegalStateException("Rejection requires a comment.");
@@ -73,15 +160,131 @@ public class ReviewService implements IReviewService {
         review.setReviewerId(reviewerId);
         review.setStatus(ReviewStatus.REJECTED);
         review.setRejectionComment(request.getRejectionComment());
+        review.releaseClaim();
 
         Review savedReview = reviewRepository.save(review);
 
-        decisionPublisher.publish(new PostReviewedEvent(postId, "REJECTED"));
+        decisionPublisher.publish(PostReviewedEvent.of(savedReview));
         logger.info("Notification: Post {} was REJECTED by {} with comment: {}", postId, reviewerId, request.getRejectionComment());
 
         return savedReview;
     }
 
+    /**
+     * Applies many decisions with one lookup, one batched save and, after the commit, one confirmed publish. Malformed
+     * requests are rejected as a whole; decisions that conflict with a review's state are skipped and
+     * reported per post while the rest are applied. So are decisions on legacy posts while post-service cannot
+     * be reached, with a reason that tells the caller to retry them.
+     */
+    @Override
+    @Transactional
+    public List<DecisionResult> decideAll(String reviewerId, List<BatchDecisionRequest.Item> decisions) {
+        Set<UUID> postIds = new HashSet<>();
+        for (BatchDecisionRequest.Item item : decisions) {
+            if (!postIds.add(item.postId())) {
+                throw new BadRequestException("Duplicate decision for post " + item.postId());
+            }
+            if (item.decision() == ReviewStatus.PENDING) {
+                throw new BadRequestException("Decision must be APPROVED or REJECTED.");
+            }
+            if (item.decision() == ReviewStatus.REJECTED && (item.comment() == null || item.comment().isBlank())) {
+                throw new BadRequestException("Rejection of post " + item.postId() + " requires a comment.");
+            }
+        }
+
+        Map<UUID, Review> reviews = reviewRepository.findAllByPostIdIn(postIds).stream()
+                .collect(Collectors.toMap(Review::getPostId, Function.identity()));
+        List<UUID> legacyPostIds = postIds.stream().filter(id -> !reviews.containsKey(id)).toList();
+        Set<UUID> unverified = new HashSet<>();
+        try {
+            reviews.putAll(reviewsForLegacyPosts(legacyPostIds));
+        } catch (Exception e) {
+            logger.warn("Could not look up {} legacy post(s) in post-service: {}", legacyPostIds.size(), e.getMessage());
+            unverified.addAll(legacyPostIds);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DecisionResult> results = new ArrayList<>(decisions.size());
+        List<Review> decided = new ArrayList<>();
+        for (BatchDecisionRequest.Item item : decisions) {
+            Review review = reviews.get(item.postId());
+            if (review == null && unverified.contains(item.postId())) {
+                results.add(DecisionResult.skipped(item.postId(), null,
+                        "Post could not be checked: post-service is unavailable. Try again later."));
+            } else if (review == null) {
+                results.add(DecisionResult.skipped(item.postId(), null, "Post not found."));
+            } else if (review.getStatus() != ReviewStatus.PENDING) {
+                results.add(DecisionResult.skipped(item.postId(), review.getStatus(),
+                        "Post review is already " + review.getStatus() + "."));
+            } else if (review.isClaimedByOtherThan(reviewerId, now)) {
+                results.add(DecisionResult.skipped(item.postId(), review.getStatus(),
+                        "Post review is claimed by another reviewer."));
+            } else {
+                review.setReviewerId(reviewerId);
+                review.setStatus(item.decision());
+                review.setRejectionComment(item.decision() == ReviewStatus.REJECTED ? item.comment() : null);
+                review.releaseClaim();
+                decided.add(review);
+                results.add(DecisionResult.applied(item.postId(), item.decision()));
+            }
+        }
+
+        // flushed as one JDBC batch (hibernate.jdbc.batch_size). Flushing first gives every review its new version,
+        // which the events carry as sequence; they only go out once that version is committed.
+        List<Review> saved = reviewRepository.saveAllAndFlush(decided);
+        List<PostReviewedEvent> events = saved.stream().map(PostReviewedEvent::of).toList();
+        afterCommit(() -> decisionPublisher.publishAll(events));
+        logger.info("Reviewer {} decided {} of {} posts in one batch", reviewerId, decided.size(), decisions.size());
+        return results;
+    }
+
+    /**
+     * A decision is only published once its transaction committed. Published first, a rollback would leave post-service
+     * with a decision review-service no longer has, and the next decision on that review would reuse its sequence.
+     */
+    private static void afterCommit(Runnable publication) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publication.run();
+                }
+            });
+        } else {
+            publication.run();
+        }
+    }
+
+    /**
+     * Posts submitted before the review queue existed have no review row; one batch call to
+     * post-service tells which of them exist.
+     */
+    private Map<UUID, Review> reviewsForLegacyPosts(List<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        List<PostResponse> posts =
+                postServiceClient.getPostsByIds(new PostBatchRequest(postIds, LEGACY_POST_FIELDS), "internal");
+        return posts.stream().collect(Collectors.toMap(PostResponse::id, post -> {
+            Review review = new Review();
+            review.setPostId(post.id());
+            review.setPostTitle(post.title());
+            review.setPostAuthor(post.author());
+            return review;
+        }));
+    }
+
+    /**
+     * Queued reviews already carry everything a decision needs. Only posts submitted before the queue
+     * existed have no row yet; for those post-service confirms the post exists.
+     */
+    private Review findReviewFor(UUID postId) {
+        return reviewRepository.findByPostId(postId).orElseGet(() -> {
+            getPostById(postId);
+            return new Review();
+        });
+    }
+
     private PostResponse getPostById(UUID postId) {
         try {
             return postServiceClient.getPostById(postId, "internal");
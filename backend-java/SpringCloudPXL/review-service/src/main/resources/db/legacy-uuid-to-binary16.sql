@@ -0,0 +1,15 @@
+-- One-off conversion for schemas created before UUID columns were stored as BINARY(16),
+-- i.e. CHAR(36) text or the BINARY(255) that Hibernate 5 generated. Fresh schemas already use BINARY(16);
+-- do not run it there. Stop the service first: the primary key is rebuilt, which also compacts the index.
+
+ALTER TABLE review ADD COLUMN id_bin BINARY(16), ADD COLUMN post_id_bin BINARY(16);
+UPDATE review
+SET id_bin      = IF(LENGTH(id) = 36, UUID_TO_BIN(id), SUBSTRING(id, 1, 16)),
+    post_id_bin = IF(LENGTH(post_id) = 36, UUID_TO_BIN(post_id), SUBSTRING(post_id, 1, 16));
+ALTER TABLE review
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    DROP COLUMN post_id,
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL,
+    CHANGE COLUMN post_id_bin post_id BINARY(16),
+    ADD PRIMARY KEY (id);
@@ -0,0 +1,12 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and never run it.
+CREATE TABLE IF NOT EXISTS review
+(
+    id                BINARY(16) NOT NULL,
+    post_id           BINARY(16),
+    reviewer_id       VARCHAR(255),
+    status            ENUM ('PENDING','APPROVED','REJECTED'),
+    rejection_comment VARCHAR(255),
+    review_date       DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,2 @@
+-- ReviewRepository.findByPostId on every approve/reject.
+CREATE INDEX idx_review_post_id ON review (post_id);
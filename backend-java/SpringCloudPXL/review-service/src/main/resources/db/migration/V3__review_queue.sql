@@ -0,0 +1,9 @@
+-- Pending reviews are created on submission and listed in submission order.
+ALTER TABLE review
+    ADD COLUMN post_title   VARCHAR(255),
+    ADD COLUMN post_author  VARCHAR(255),
+    ADD COLUMN submitted_at DATETIME(6);
+
+UPDATE review SET submitted_at = review_date WHERE submitted_at IS NULL;
+
+CREATE INDEX idx_review_status_submitted ON review (status, submitted_at, id);
@@ -0,0 +1,7 @@
+-- Reviewers claim pending reviews for a limited time; version guards concurrent decisions.
+ALTER TABLE review
+    ADD COLUMN claimed_by       VARCHAR(255),
+    ADD COLUMN lease_expires_at DATETIME(6),
+    ADD COLUMN version          BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_review_lease_expires ON review (lease_expires_at);
@@ -2,7 +2,11 @@ package be.pxl.services.controller;
 
 import be.pxl.services.domain.Review;
 import be.pxl.services.domain.ReviewStatus;
+import be.pxl.services.domain.dtos.BatchDecisionRequest;
+import be.pxl.services.domain.dtos.DecisionResult;
+import be.pxl.services.domain.dtos.PageResponse;
 import be.pxl.services.domain.dtos.SubmitReviewRequest;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.GlobalExceptionHandler;
 import be.pxl.services.service.IReviewService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,11 +19,14 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,6 +61,75 @@ class ReviewControllerTest {
         assertEquals("My nice post", captor.getValue().title());
     }
 
+    @Test
+    void getPending_returnsQueuedReviewsAndCursor() throws Exception {
+        Review review = new Review();
+        review.setId(UUID.randomUUID());
+        review.setPostId(UUID.randomUUID());
+        review.setPostTitle("My nice post");
+        review.setPostAuthor("alice");
+        review.setSubmittedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(reviewService.findPending("abc", 1)).thenReturn(new PageResponse<>(List.of(review), "next"));
+
+        mockMvc.perform(get("/api/reviews/pending").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].postId").value(review.getPostId().toString()))
+                .andExpect(jsonPath("$.items[0].postTitle").value("My nice post"))
+                .andExpect(jsonPath("$.items[0].postAuthor").value("alice"))
+                .andExpect(jsonPath("$.next").value("next"));
+    }
+
+    @Test
+    void getPending_invalidCursor_returns400() throws Exception {
+        when(reviewService.findPending("bad", 20)).thenThrow(new BadRequestException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/reviews/pending").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void claim_returnsLeasedReviews() throws Exception {
+        Review review = new Review();
+        review.setPostId(UUID.randomUUID());
+        review.setClaimedBy("editor_mock_id");
+        review.setLeaseExpiresAt(LocalDateTime.of(2024, 1, 1, 12, 5));
+
+        when(reviewService.claimNext("editor_mock_id", 5)).thenReturn(List.of(review));
+
+        mockMvc.perform(post("/api/reviews/claim").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].postId").value(review.getPostId().toString()))
+                .andExpect(jsonPath("$[0].leaseExpiresAt").value("2024-01-01T12:05:00"));
+    }
+
+    @Test
+    void decideAll_returnsPerPostResults() throws Exception {
+        UUID postId = UUID.randomUUID();
+        BatchDecisionRequest request = new BatchDecisionRequest(
+                List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null)));
+        when(reviewService.decideAll(eq("editor_mock_id"), eq(request.decisions())))
+                .thenReturn(List.of(DecisionResult.applied(postId, ReviewStatus.APPROVED)));
+
+        mockMvc.perform(post("/api/reviews/decisions:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].postId").value(postId.toString()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist());
+    }
+
+    @Test
+    void decideAll_emptyBatch_returns400() throws Exception {
+        mockMvc.perform(post("/api/reviews/decisions:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"decisions\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewService);
+    }
+
     @Test
     void approvePost_returns201AndReviewBody() throws Exception {
         UUID postId = UUID.randomUUID();
@@ -0,0 +1,123 @@
+package be.pxl.services.it;
+
+import be.pxl.services.domain.ReviewStatus;
+import be.pxl.services.repository.ReviewRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against MySQL, calls the hot repository queries and checks with EXPLAIN that the SQL
+ * Hibernate generated for them uses their index.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class QueryPlanIT {
+
+    private static final UUID KNOWN_POST_ID = UUID.randomUUID();
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.3.0")
+            .withDatabaseName("reviewdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    // only the JPA slice: the application class would also bring in Feign clients, discovery and scheduling
+    @SpringBootConfiguration
+    @EntityScan("be.pxl.services.domain")
+    @EnableJpaRepositories("be.pxl.services.repository")
+    @Import(StatementCapture.class)
+    static class JpaSlice {
+    }
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private StatementCapture statements;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()).load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO review (id, post_id, reviewer_id, status, review_date, submitted_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < 1000; i++) {
+                insert.setBytes(1, bytes(UUID.randomUUID()));
+                insert.setBytes(2, bytes(i == 0 ? KNOWN_POST_ID : UUID.randomUUID()));
+                insert.setString(3, "editor");
+                insert.setString(4, i % 10 == 0 ? "PENDING" : "APPROVED");
+                insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now().minusMinutes(i)));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.createStatement().execute("ANALYZE TABLE review");
+        }
+    }
+
+    @BeforeEach
+    void clearStatements() {
+        statements.clear();
+    }
+
+    @Test
+    void findByPostId_usesPostIdIndex() throws SQLException {
+        reviewRepository.findByPostId(KNOWN_POST_ID);
+
+        assertThat(statements.explainKey(statements.last("from review"))).isEqualTo("idx_review_post_id");
+    }
+
+    @Test
+    void pendingQueue_usesStatusSubmittedIndex() throws SQLException {
+        reviewRepository.findByStatusInSubmissionOrder(ReviewStatus.PENDING, LocalDateTime.now().minusHours(1),
+                UUID.randomUUID(), Limit.of(21));
+
+        assertThat(statements.explainKey(statements.last("from review"))).isEqualTo("idx_review_status_submitted");
+    }
+
+    @Test
+    void claimQuery_usesStatusSubmittedIndex() throws SQLException {
+        reviewRepository.lockUnclaimedPending(10);
+
+        assertThat(statements.explainKey(statements.last("from review"))).isEqualTo("idx_review_status_submitted");
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
@@ -0,0 +1,53 @@
+package be.pxl.services.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.COMPACT_DECISION_CONTENT_TYPE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactDecisionMessageConverterTest {
+
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+
+    private static PostReviewedEvent event() {
+        return new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 12);
+    }
+
+    @Test
+    void toMessage_writesCompactDecisionsWhenEnabled() {
+        var converter = new CompactDecisionMessageConverter(json, true);
+        PostReviewedEvent evt = event();
+
+        Message message = converter.toMessage(evt, new MessageProperties());
+
+        assertEquals(COMPACT_DECISION_CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(36, message.getBody().length);
+        assertNull(message.getMessageProperties().getHeader("__TypeId__"));
+        assertEquals(evt, converter.fromMessage(message));
+    }
+
+    @Test
+    void toMessage_staysJsonWhenDisabled() {
+        var converter = new CompactDecisionMessageConverter(json, false);
+        PostReviewedEvent evt = event();
+
+        Message message = converter.toMessage(evt, new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+        assertEquals(evt, converter.fromMessage(message));
+    }
+
+    @Test
+    void toMessage_otherPayloadsStayJson() {
+        var converter = new CompactDecisionMessageConverter(json, true);
+
+        Message message = converter.toMessage(new PostSubmittedEvent(UUID.randomUUID(), "alice", "Title"), new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+}
@@ -0,0 +1,106 @@
+package be.pxl.services.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DecisionJournal journal(Path path) {
+        return new DecisionJournal(objectMapper, new SimpleMeterRegistry(), path);
+    }
+
+    @Test
+    void appendedEventsSurviveARestart() {
+        Path path = dir.resolve("journal.jsonl");
+        PostReviewedEvent first = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 1);
+        PostReviewedEvent second = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "REJECTED", 1);
+        journal(path).append(List.of(first, second));
+
+        DecisionJournal restarted = journal(path);
+        List<PostReviewedEvent> replayed = new ArrayList<>();
+        restarted.replay(events -> {
+            replayed.addAll(events);
+            return List.of();
+        });
+
+        assertEquals(List.of(first, second), replayed);
+        assertEquals(0, restarted.backlog());
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void replay_keepsOnlyEventsThatAreStillUnconfirmed() {
+        Path path = dir.resolve("journal.jsonl");
+        DecisionJournal journal = journal(path);
+        PostReviewedEvent confirmed = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 1);
+        PostReviewedEvent unconfirmed = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "REJECTED", 1);
+        journal.append(List.of(confirmed, unconfirmed));
+        assertEquals(2, journal.backlog());
+
+        journal.replay(events -> List.of(unconfirmed));
+
+        assertEquals(1, journal.backlog());
+        List<PostReviewedEvent> left = new ArrayList<>();
+        journal.replay(events -> {
+            left.addAll(events);
+            return events;
+        });
+        assertEquals(List.of(unconfirmed), left);
+    }
+
+    @Test
+    void replay_doesNotBlockAppendsWhileSending() {
+        Path path = dir.resolve("journal.jsonl");
+        DecisionJournal journal = journal(path);
+        PostReviewedEvent replayed = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 1);
+        PostReviewedEvent failedMeanwhile = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "REJECTED", 1);
+        journal.append(List.of(replayed));
+
+        journal.replay(events -> {
+            CompletableFuture<Void> append = CompletableFuture.runAsync(() -> journal.append(List.of(failedMeanwhile)));
+            assertDoesNotThrow(() -> append.get(5, TimeUnit.SECONDS));
+            return List.of();
+        });
+
+        assertEquals(1, journal.backlog());
+        List<PostReviewedEvent> left = new ArrayList<>();
+        journal.replay(events -> {
+            left.addAll(events);
+            return events;
+        });
+        assertEquals(List.of(failedMeanwhile), left);
+    }
+
+    @Test
+    void replay_skipsUnreadableLines() throws IOException {
+        Path path = dir.resolve("journal.jsonl");
+        PostReviewedEvent event = new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 1);
+        Files.write(path, List.of("{broken", objectMapper.writeValueAsString(event)));
+
+        List<PostReviewedEvent> replayed = new ArrayList<>();
+        journal(path).replay(events -> {
+            replayed.addAll(events);
+            return List.of();
+        });
+
+        assertEquals(List.of(event), replayed);
+    }
+}
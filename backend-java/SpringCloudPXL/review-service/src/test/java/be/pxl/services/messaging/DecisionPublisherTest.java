@@ -1,16 +1,28 @@
 package be.pxl.services.messaging;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.net.ConnectException;
+import java.util.List;
+import java.util.UUID;
+
+import static be.pxl.services.messaging.MessagingNames.POST_ID_HEADER;
 import static be.pxl.services.messaging.MessagingNames.POST_REVIEWED_RK;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,30 +34,167 @@ class DecisionPublisherTest {
     @Mock
     private TopicExchange reviewExchange;
 
-    @InjectMocks
+    @Mock
+    private DecisionJournal journal;
+
+    private SimpleMeterRegistry meterRegistry;
     private DecisionPublisher decisionPublisher;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decisionPublisher = new DecisionPublisher(rabbitTemplate, reviewExchange, journal, meterRegistry, 2, 10, 100);
+        lenient().when(reviewExchange.getName()).thenReturn("review.exchange");
+    }
+
+    private void brokerAnswers(boolean ack) {
+        doAnswer(inv -> {
+            inv.getArgument(4, CorrelationData.class).getFuture().complete(new CorrelationData.Confirm(ack, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private static PostReviewedEvent event() {
+        return new PostReviewedEvent(UUID.randomUUID(), UUID.randomUUID(), "APPROVED", 1);
+    }
+
+    @Test
+    void publish_onlyBuffersUntilFlush() {
+        decisionPublisher.publish(event());
+
+        assertEquals(1, decisionPublisher.buffered());
+        assertEquals(1.0, meterRegistry.get("reviews.decisions.buffer.size").gauge().value());
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void flush_sendsBufferedEventsAndRecordsConfirmLatency() {
+        brokerAnswers(true);
+        PostReviewedEvent first = event();
+        PostReviewedEvent second = event();
+        decisionPublisher.publish(first);
+        decisionPublisher.publish(second);
+
+        decisionPublisher.flush();
+
+        verify(rabbitTemplate).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), eq((Object) first), any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(rabbitTemplate).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), eq((Object) second), any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(journal).append(List.of());
+        assertEquals(0, decisionPublisher.buffered());
+        assertEquals(2, meterRegistry.get("reviews.decisions.confirm.latency").timer().count());
+    }
+
+    @Test
+    void flush_journalsNackedEvents() {
+        brokerAnswers(false);
+        PostReviewedEvent evt = event();
+        decisionPublisher.publish(evt);
+
+        decisionPublisher.flush();
+
+        verify(journal).append(List.of(evt));
+    }
+
     @Test
-    void publish_sendsEventToExchangeWithRoutingKey() {
-        PostReviewedEvent event = new PostReviewedEvent(
-                java.util.UUID.randomUUID(),
-                "APPROVED"
-        );
+    void flush_journalsUnconfirmedEventsAfterTimeout() {
+        PostReviewedEvent evt = event();
+        decisionPublisher.publish(evt);
 
-        when(reviewExchange.getName()).thenReturn("review.exchange");
+        decisionPublisher.flush();
 
-        decisionPublisher.publish(event);
+        verify(journal).append(List.of(evt));
+    }
 
-        ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
+    @Test
+    void flush_journalsEventsThatCouldNotBeSent() {
+        doThrow(new AmqpConnectException(new ConnectException("down")))
+                .when(rabbitTemplate).convertAndSend(any(String.class), any(String.class), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        PostReviewedEvent evt = event();
+        decisionPublisher.publish(evt);
+
+        decisionPublisher.flush();
+
+        verify(journal).append(List.of(evt));
+    }
+
+    @Test
+    void publish_bufferFull_journalsImmediately() {
+        decisionPublisher.publish(event());
+        decisionPublisher.publish(event());
+        PostReviewedEvent overflow = event();
+
+        decisionPublisher.publish(overflow);
+
+        verify(journal).append(List.of(overflow));
+        assertEquals(2, decisionPublisher.buffered());
+    }
+
+    @Test
+    void publishAll_allConfirmed_journalsNothing() {
+        brokerAnswers(true);
+
+        decisionPublisher.publishAll(List.of(event(), event()));
+
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(journal).append(List.of());
+    }
+
+    @Test
+    void publishAll_nacked_journalsTheEventForReplay() {
+        brokerAnswers(false);
+        PostReviewedEvent nacked = event();
+
+        decisionPublisher.publishAll(List.of(nacked));
+
+        verify(journal).append(List.of(nacked));
+    }
+
+    @Test
+    void replayJournal_resendsJournaledEvents() {
+        brokerAnswers(true);
+        PostReviewedEvent evt = event();
+        doAnswer(inv -> {
+            List<PostReviewedEvent> remaining = inv.<java.util.function.UnaryOperator<List<PostReviewedEvent>>>getArgument(0)
+                    .apply(List.of(evt));
+            assertTrue(remaining.isEmpty());
+            return null;
+        }).when(journal).replay(any());
+
+        decisionPublisher.replayJournal();
+
+        verify(rabbitTemplate).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), eq((Object) evt), any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void flush_tagsEachMessageWithItsPostIdForPartitioning() {
+        brokerAnswers(true);
+        PostReviewedEvent evt = event();
+        decisionPublisher.publish(evt);
+
+        decisionPublisher.flush();
+
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), eq((Object) evt), postProcessor.capture(), any(CorrelationData.class));
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals(evt.postId().toString(), message.getMessageProperties().getHeader(POST_ID_HEADER));
+    }
+
+    @Test
+    void flush_identifiesEachMessageByItsEventId() {
+        brokerAnswers(true);
+        PostReviewedEvent first = event();
+        PostReviewedEvent second = new PostReviewedEvent(UUID.randomUUID(), first.postId(), "REJECTED", 2);
+        decisionPublisher.publish(first);
+        decisionPublisher.publish(second);
 
-        verify(rabbitTemplate).convertAndSend(
-                eq("review.exchange"),
-                eq(POST_REVIEWED_RK),
-                payloadCaptor.capture()
-        );
+        decisionPublisher.flush();
 
-        PostReviewedEvent sent = (PostReviewedEvent) payloadCaptor.getValue();
-        assertEquals(event.postId(), sent.postId());
-        assertEquals(event.decision(), sent.decision());
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("review.exchange"), eq(POST_REVIEWED_RK), any(Object.class), postProcessor.capture(), correlation.capture());
+        assertEquals(List.of(first.eventId().toString(), second.eventId().toString()),
+                correlation.getAllValues().stream().map(CorrelationData::getId).toList());
+        Message message = postProcessor.getAllValues().get(1).postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals(second.eventId().toString(), message.getMessageProperties().getMessageId());
     }
 }
@@ -0,0 +1,32 @@
+package be.pxl.services.messaging;
+
+import be.pxl.services.domain.dtos.SubmitReviewRequest;
+import be.pxl.services.service.IReviewService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionListenerTest {
+
+    @Mock
+    private IReviewService reviewService;
+
+    @InjectMocks
+    private SubmissionListener submissionListener;
+
+    @Test
+    void onSubmitted_forwardsSubmissionToReviewService() {
+        UUID postId = UUID.randomUUID();
+
+        submissionListener.onSubmitted(new PostSubmittedEvent(postId, "alice", "Title"));
+
+        verify(reviewService).submit(new SubmitReviewRequest(postId, "alice", "Title"));
+    }
+}
@@ -3,8 +3,13 @@ package be.pxl.services.services;
 import be.pxl.services.client.PostServiceClient;
 import be.pxl.services.domain.Review;
 import be.pxl.services.domain.ReviewStatus;
+import be.pxl.services.domain.dtos.BatchDecisionRequest;
+import be.pxl.services.domain.dtos.DecisionResult;
+import be.pxl.services.domain.dtos.PageResponse;
 import be.pxl.services.domain.dtos.PostResponse;
+import be.pxl.services.domain.dtos.ReviewCursor;
 import be.pxl.services.domain.dtos.SubmitReviewRequest;
+import be.pxl.services.exceptions.BadRequestException;
 import be.pxl.services.exceptions.ResourceNotFoundException;
 import be.pxl.services.messaging.DecisionPublisher;
 import be.pxl.services.messaging.PostReviewedEvent;
@@ -15,7 +20,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,7 +46,6 @@ class ReviewServiceTest {
     @Mock
     private DecisionPublisher decisionPublisher;
 
-    @InjectMocks
     private ReviewService reviewService;
 
     private UUID postId;
@@ -45,24 +55,285 @@ class ReviewServiceTest {
     void setUp() {
         postId = UUID.randomUUID();
         reviewerId = "editor_mock_id";
+        reviewService = new ReviewService(reviewRepository, postServiceClient, decisionPublisher, Duration.ofMinutes(5));
     }
 
     @Test
-    void submit_logsOnly_doesNotThrow() {
+    void submit_newPost_queuesPendingReviewWithPostDetails() {
         SubmitReviewRequest req = new SubmitReviewRequest(postId, "author", "title");
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.empty());
+
+        reviewService.submit(req);
+
+        ArgumentCaptor<Review> captor = ArgumentCaptor.forClass(Review.class);
+        verify(reviewRepository).save(captor.capture());
+        Review saved = captor.getValue();
+        assertEquals(postId, saved.getPostId());
+        assertEquals("author", saved.getPostAuthor());
+        assertEquals("title", saved.getPostTitle());
+        assertEquals(ReviewStatus.PENDING, saved.getStatus());
+        assertNotNull(saved.getSubmittedAt());
+        verifyNoInteractions(postServiceClient, decisionPublisher);
+    }
+
+    @Test
+    void submit_alreadyQueued_keepsPlaceInQueue() {
+        Review existing = new Review();
+        existing.setId(UUID.randomUUID());
+        existing.setPostId(postId);
+        existing.setSubmittedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
+
+        reviewService.submit(new SubmitReviewRequest(postId, "author", "new title"));
+
+        verify(reviewRepository).save(existing);
+        assertEquals("new title", existing.getPostTitle());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0), existing.getSubmittedAt());
+    }
+
+    @Test
+    void submit_afterRejection_requeuesAndClearsDecision() {
+        Review existing = new Review();
+        existing.setId(UUID.randomUUID());
+        existing.setPostId(postId);
+        existing.setStatus(ReviewStatus.REJECTED);
+        existing.setReviewerId(reviewerId);
+        existing.setRejectionComment("Too short");
+        existing.setSubmittedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
+
+        reviewService.submit(new SubmitReviewRequest(postId, "author", "title"));
 
-        assertDoesNotThrow(() -> reviewService.submit(req));
+        assertEquals(ReviewStatus.PENDING, existing.getStatus());
+        assertNull(existing.getReviewerId());
+        assertNull(existing.getRejectionComment());
+        assertTrue(existing.getSubmittedAt().isAfter(LocalDateTime.of(2024, 1, 1, 12, 0)));
+    }
+
+    @Test
+    void findPending_returnsCursorWhenMoreRowsExist() {
+        Review first = queued(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Review second = queued(LocalDateTime.of(2024, 1, 1, 11, 0));
+        Review extra = queued(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(reviewRepository.findByStatusInSubmissionOrder(ReviewStatus.PENDING, null, null, Limit.of(3)))
+                .thenReturn(List.of(first, second, extra));
+
+        PageResponse<Review> page = reviewService.findPending(null, 2);
+
+        assertEquals(List.of(first, second), page.items());
+        assertEquals(ReviewCursor.of(second), ReviewCursor.decode(page.next()));
+        verifyNoInteractions(postServiceClient);
+    }
+
+    @Test
+    void findPending_withCursor_continuesAfterIt() {
+        ReviewCursor cursor = new ReviewCursor(LocalDateTime.of(2024, 1, 1, 10, 0), UUID.randomUUID());
+        when(reviewRepository.findByStatusInSubmissionOrder(
+                ReviewStatus.PENDING, cursor.submittedAt(), cursor.id(), Limit.of(101)))
+                .thenReturn(List.of());
+
+        PageResponse<Review> page = reviewService.findPending(cursor.encode(), 500);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.next());
+    }
+
+    @Test
+    void findPending_invalidInput_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> reviewService.findPending(null, 0));
+        assertThrows(BadRequestException.class, () -> reviewService.findPending("not-a-cursor", 20));
+        verifyNoInteractions(reviewRepository);
+    }
 
-        // no repository or publisher interaction
+    @Test
+    void claimNext_leasesLockedReviewsToReviewer() {
+        Review first = queued(LocalDateTime.of(2024, 1, 1, 10, 0));
+        Review second = queued(LocalDateTime.of(2024, 1, 1, 11, 0));
+        when(reviewRepository.lockUnclaimedPending(2)).thenReturn(List.of(first, second));
+        when(reviewRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Review> claimed = reviewService.claimNext(reviewerId, 2);
+
+        assertEquals(List.of(first, second), claimed);
+        assertTrue(claimed.stream().allMatch(r -> reviewerId.equals(r.getClaimedBy())));
+        assertTrue(first.getLeaseExpiresAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+    }
+
+    @Test
+    void claimNext_limitOutOfRange_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> reviewService.claimNext(reviewerId, 0));
+        assertThrows(BadRequestException.class, () -> reviewService.claimNext(reviewerId, 51));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void approvePost_claimedByOtherReviewer_throwsIllegalState() {
+        Review existing = new Review();
+        existing.setClaimedBy("other_editor");
+        existing.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(1));
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
+
+        IllegalStateException ex = assertThrows(
+                IllegalStateException.class,
+                () -> reviewService.approvePost(postId, reviewerId)
+        );
+
+        assertTrue(ex.getMessage().contains("claimed"));
+        verify(reviewRepository, never()).save(any());
+        verifyNoInteractions(decisionPublisher);
+    }
+
+    @Test
+    void approvePost_expiredClaimOfOtherReviewer_isIgnoredAndReleased() {
+        Review existing = new Review();
+        existing.setClaimedBy("other_editor");
+        existing.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
+        when(reviewRepository.save(any(Review.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, Review.class));
+
+        Review result = reviewService.approvePost(postId, reviewerId);
+
+        assertEquals(ReviewStatus.APPROVED, result.getStatus());
+        assertNull(result.getClaimedBy());
+        assertNull(result.getLeaseExpiresAt());
+    }
+
+    @Test
+    void decideAll_appliesValidDecisionsAndReportsSkippedOnes() {
+        Review pending = new Review();
+        pending.setPostId(postId);
+        UUID decidedPostId = UUID.randomUUID();
+        Review decided = new Review();
+        decided.setPostId(decidedPostId);
+        decided.setStatus(ReviewStatus.APPROVED);
+        UUID unknownPostId = UUID.randomUUID();
+        when(reviewRepository.findAllByPostIdIn(anyCollection())).thenReturn(List.of(pending, decided));
+        when(postServiceClient.getPostsByIds(any(), eq("internal"))).thenReturn(List.of());
+        when(reviewRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<DecisionResult> results = reviewService.decideAll(reviewerId, List.of(
+                new BatchDecisionRequest.Item(postId, ReviewStatus.REJECTED, "Too short"),
+                new BatchDecisionRequest.Item(decidedPostId, ReviewStatus.APPROVED, null),
+                new BatchDecisionRequest.Item(unknownPostId, ReviewStatus.APPROVED, null)
+        ));
+
+        assertEquals(DecisionResult.applied(postId, ReviewStatus.REJECTED), results.get(0));
+        assertEquals(ReviewStatus.APPROVED, results.get(1).status());
+        assertNotNull(results.get(1).error());
+        assertNull(results.get(2).status());
+        assertNotNull(results.get(2).error());
+
+        assertEquals("Too short", pending.getRejectionComment());
+        assertEquals(reviewerId, pending.getReviewerId());
+        verify(reviewRepository).saveAllAndFlush(List.of(pending));
+        ArgumentCaptor<List<PostReviewedEvent>> published = ArgumentCaptor.forClass(List.class);
+        verify(decisionPublisher).publishAll(published.capture());
+        assertEquals(1, published.getValue().size());
+        assertEquals(postId, published.getValue().get(0).postId());
+        assertEquals("REJECTED", published.getValue().get(0).decision());
+        assertNotNull(published.getValue().get(0).eventId());
+        verify(postServiceClient).getPostsByIds(argThat(req -> req.ids().equals(List.of(unknownPostId))), eq("internal"));
+    }
+
+    @Test
+    void decideAll_inTransaction_publishesOnlyAfterCommit() {
+        Review pending = new Review();
+        pending.setPostId(postId);
+        when(reviewRepository.findAllByPostIdIn(anyCollection())).thenReturn(List.of(pending));
+        when(reviewRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reviewService.decideAll(reviewerId, List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null)));
+            verifyNoInteractions(decisionPublisher);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(decisionPublisher).publishAll(argThat(events -> events.size() == 1 && events.get(0).postId().equals(postId)));
+    }
+
+    @Test
+    void decideAll_rolledBack_publishesNothing() {
+        Review pending = new Review();
+        pending.setPostId(postId);
+        when(reviewRepository.findAllByPostIdIn(anyCollection())).thenReturn(List.of(pending));
+        when(reviewRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reviewService.decideAll(reviewerId, List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verifyNoInteractions(decisionPublisher);
+    }
+
+    @Test
+    void decideAll_legacyPostWithoutReviewRow_isLookedUpInOneCall() {
+        when(reviewRepository.findAllByPostIdIn(anyCollection())).thenReturn(List.of());
+        PostResponse post = new PostResponse(postId, "title", null, "author", null, null, null);
+        when(postServiceClient.getPostsByIds(any(), eq("internal"))).thenReturn(List.of(post));
+
+        List<DecisionResult> results = reviewService.decideAll(reviewerId,
+                List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null)));
+
+        assertEquals(List.of(DecisionResult.applied(postId, ReviewStatus.APPROVED)), results);
+        ArgumentCaptor<List<Review>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reviewRepository).saveAllAndFlush(saved.capture());
+        assertEquals("title", saved.getValue().get(0).getPostTitle());
+        assertEquals(ReviewStatus.APPROVED, saved.getValue().get(0).getStatus());
+    }
+
+    @Test
+    void decideAll_postServiceDown_skipsLegacyPostsAsUncheckedNotAsMissing() {
+        Review pending = new Review();
+        pending.setPostId(postId);
+        UUID legacyPostId = UUID.randomUUID();
+        when(reviewRepository.findAllByPostIdIn(anyCollection())).thenReturn(List.of(pending));
+        when(postServiceClient.getPostsByIds(any(), eq("internal"))).thenThrow(new RuntimeException("connection refused"));
+        when(reviewRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<DecisionResult> results = reviewService.decideAll(reviewerId, List.of(
+                new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null),
+                new BatchDecisionRequest.Item(legacyPostId, ReviewStatus.APPROVED, null)
+        ));
+
+        assertEquals(DecisionResult.applied(postId, ReviewStatus.APPROVED), results.get(0));
+        assertEquals(DecisionResult.skipped(legacyPostId, null,
+                "Post could not be checked: post-service is unavailable. Try again later."), results.get(1));
+    }
+
+    @Test
+    void decideAll_malformedBatch_throwsBadRequest() {
+        BatchDecisionRequest.Item approve = new BatchDecisionRequest.Item(postId, ReviewStatus.APPROVED, null);
+
+        assertThrows(BadRequestException.class, () -> reviewService.decideAll(reviewerId, List.of(approve, approve)));
+        assertThrows(BadRequestException.class, () -> reviewService.decideAll(reviewerId,
+                List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.REJECTED, " "))));
+        assertThrows(BadRequestException.class, () -> reviewService.decideAll(reviewerId,
+                List.of(new BatchDecisionRequest.Item(postId, ReviewStatus.PENDING, null))));
         verifyNoInteractions(reviewRepository, decisionPublisher);
     }
 
+    private Review queued(LocalDateTime submittedAt) {
+        Review review = new Review();
+        review.setId(UUID.randomUUID());
+        review.setPostId(UUID.randomUUID());
+        review.setSubmittedAt(submittedAt);
+        return review;
+    }
+
     @Test
     void approvePost_happyPath_savesReviewAndPublishesEvent() {
         // Arrange
-        PostResponse dummyPost = mock(PostResponse.class);
-        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(dummyPost);
-
         Review existing = new Review();
         existing.setStatus(ReviewStatus.PENDING);
         when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
@@ -82,6 +353,7 @@ class ReviewServiceTest {
 
         verify(reviewRepository).save(result);
         verify(decisionPublisher).publish(eventCaptor.capture());
+        verifyNoInteractions(postServiceClient);
 
         PostReviewedEvent evt = eventCaptor.getValue();
         assertEquals(postId, evt.postId());
@@ -90,9 +362,6 @@ class ReviewServiceTest {
 
     @Test
     void approvePost_nonPendingReview_throwsIllegalState() {
-        PostResponse dummyPost = mock(PostResponse.class);
-        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(dummyPost);
-
         Review existing = new Review();
         existing.setStatus(ReviewStatus.APPROVED); // already approved
         when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
@@ -108,8 +377,23 @@ class ReviewServiceTest {
         verifyNoInteractions(decisionPublisher);
     }
 
+    @Test
+    void approvePost_withoutQueuedReview_checksPostServiceFirst() {
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.empty());
+        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(mock(PostResponse.class));
+        when(reviewRepository.save(any(Review.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, Review.class));
+
+        Review result = reviewService.approvePost(postId, reviewerId);
+
+        assertEquals(ReviewStatus.APPROVED, result.getStatus());
+        verify(postServiceClient).getPostById(postId, "internal");
+        verify(decisionPublisher).publish(any(PostReviewedEvent.class));
+    }
+
     @Test
     void approvePost_postNotFoundInPostService_throwsResourceNotFound() {
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.empty());
         when(postServiceClient.getPostById(eq(postId), eq("internal")))
                 .thenThrow(new RuntimeException("PostService down"));
 
@@ -119,15 +403,13 @@ class ReviewServiceTest {
         );
 
         assertTrue(ex.getMessage().contains(postId.toString()));
-        verifyNoInteractions(reviewRepository, decisionPublisher);
+        verify(reviewRepository, never()).save(any());
+        verifyNoInteractions(decisionPublisher);
     }
 
     @Test
     void rejectPost_happyPath_savesReviewAndPublishesEvent() {
         // Arrange
-        PostResponse dummyPost = mock(PostResponse.class);
-        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(dummyPost);
-
         Review existing = new Review();
         existing.setStatus(ReviewStatus.PENDING);
         when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
@@ -151,6 +433,7 @@ class ReviewServiceTest {
 
         verify(reviewRepository).save(result);
         verify(decisionPublisher).publish(eventCaptor.capture());
+        verifyNoInteractions(postServiceClient);
 
         PostReviewedEvent evt = eventCaptor.getValue();
         assertEquals(postId, evt.postId());
@@ -159,9 +442,6 @@ class ReviewServiceTest {
 
     @Test
     void rejectPost_withoutComment_throwsIllegalState() {
-        PostResponse dummyPost = mock(PostResponse.class);
-        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(dummyPost);
-
         Review existing = new Review();
         existing.setStatus(ReviewStatus.PENDING);
         when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
@@ -181,9 +461,6 @@ class ReviewServiceTest {
 
     @Test
     void rejectPost_nonPendingReview_throwsIllegalState() {
-        PostResponse dummyPost = mock(PostResponse.class);
-        when(postServiceClient.getPostById(eq(postId), eq("internal"))).thenReturn(dummyPost);
-
         Review existing = new Review();
         existing.setStatus(ReviewStatus.APPROVED);
         when(reviewRepository.findByPostId(postId)).thenReturn(Optional.of(existing));
@@ -204,6 +481,7 @@ class ReviewServiceTest {
 
     @Test
     void rejectPost_postNotFoundInPostService_throwsResourceNotFound() {
+        when(reviewRepository.findByPostId(postId)).thenReturn(Optional.empty());
         when(postServiceClient.getPostById(eq(postId), eq("internal")))
                 .thenThrow(new RuntimeException("Post not found"));
 
@@ -215,6 +493,7 @@ class ReviewServiceTest {
                 () -> reviewService.rejectPost(postId, reviewerId, request)
         );
 
-        verifyNoInteractions(reviewRepository, decisionPublisher);
+        verify(reviewRepository, never()).save(any());
+        verifyNoInteractions(decisionPublisher);
     }
 }